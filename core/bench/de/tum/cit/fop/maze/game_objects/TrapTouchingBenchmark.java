@@ -0,0 +1,164 @@
+package de.tum.cit.fop.maze.game_objects;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import de.tum.cit.fop.maze.base.GameObject;
+import de.tum.cit.fop.maze.tiles.HitMask;
+import de.tum.cit.fop.maze.tiles.HitMaskBaker;
+import de.tum.cit.fop.maze.tiles.HitMaskSheet;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
+
+/**
+ * Measures {@link Trap#isTouching(GameObject)}, which asks {@link HitMask#isAnySolid(int, int, int, int)},
+ * against the loop over every world pixel of the overlap that it replaced, with the real trap masks
+ * of the obstacle sheets of all the levels. <br>
+ * It is run by the Gradle task {@code benchTrapTouching} with the directory of the tile sheets as its argument,
+ * and fails if the two ever disagree.
+ */
+public final class TrapTouchingBenchmark {
+    private static final int TRAPS_PER_SHEET = 10;
+    private static final int OBJECTS = 200_000;
+    private static final int ROUNDS = 5;
+    private static final long SEED = 16;
+    private static final float TRAP_X = 1000, TRAP_Y = 1000;
+
+    private TrapTouchingBenchmark() {
+    }
+
+    /**
+     * A game object of a given size, which is all that the collision checks look at.
+     */
+    private static class Box extends GameObject {
+        private Box(float x, float y, int width, int height) {
+            super(x, y, width, height, width, height, width, height);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String tileSheetDirectory = (args.length > 0) ? args[0] : "assets/tilesets";
+        Random random = new Random(SEED);
+
+        // the traps of the obstacle sheets of levels 1 to 6, at random offsets around the same place
+        Trap[] traps = new Trap[6 * TRAPS_PER_SHEET];
+        HitMask[] hitMasks = new HitMask[traps.length];
+        for (int level = 1; level <= 6; level++) {
+            HitMaskSheet sheet = HitMaskBaker.extract(tileSheetDirectory + "/level" + level + "_obstacles.png");
+            for (int i = 0; i < TRAPS_PER_SHEET; i++) {
+                int index = (level - 1) * TRAPS_PER_SHEET + i;
+                TextureRegion region = createRegion(i * 32, 0, 32, 32);
+                hitMasks[index] = sheet.getSolidMask(region);
+                traps[index] = new Trap(region, hitMasks[index], TRAP_X + random.nextFloat() * 7, TRAP_Y + random.nextFloat() * 7,
+                        16, 16, 16, 16, 80, 80, 1);
+            }
+        }
+
+        // objects of different sizes, touching the traps partly, fully or not at all
+        GameObject[] objects = new GameObject[OBJECTS];
+        int[] trapIndices = new int[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            objects[i] = new Box(TRAP_X + (random.nextFloat() - 0.5f) * 160, TRAP_Y + (random.nextFloat() - 0.5f) * 160,
+                    20 + random.nextInt(60), 20 + random.nextInt(80));
+            trapIndices[i] = random.nextInt(traps.length);
+        }
+
+        int touching = 0;
+        for (int i = 0; i < OBJECTS; i++) {
+            Trap trap = traps[trapIndices[i]];
+            boolean isTouching = trap.isTouching(objects[i]);
+            if (isTouching != isTouchingPerPixel(trap, hitMasks[trapIndices[i]], objects[i]))
+                throw new IllegalStateException("Object " + i + ": isTouching() is " + isTouching + ", the per-pixel loop disagrees");
+            if (isTouching) touching++;
+        }
+        System.out.printf("isTouching() agrees with the per-pixel loop on all %d objects (%d touching)%n", OBJECTS, touching);
+
+        for (int round = 0; round < ROUNDS; round++) { // the first rounds warm up the JIT, only the last one is printed
+            int count = 0;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < OBJECTS; i++)
+                if (isTouchingPerPixel(traps[trapIndices[i]], hitMasks[trapIndices[i]], objects[i])) count++;
+            long perPixelNanos = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            for (int i = 0; i < OBJECTS; i++)
+                if (traps[trapIndices[i]].isTouching(objects[i])) count--;
+            long summedAreaNanos = System.nanoTime() - startTime;
+            if (round == ROUNDS - 1)
+                System.out.printf("mixed overlaps: per-pixel loop %.1f ns, isTouching() %.1f ns per call (%d)%n",
+                        perPixelNanos / (double) OBJECTS, summedAreaNanos / (double) OBJECTS, count);
+        }
+
+        // the worst case of the per-pixel loop: a large object over the whole trap
+        GameObject large = new Box(TRAP_X, TRAP_Y, 80, 80);
+        int calls = OBJECTS / traps.length;
+        for (int round = 0; round < ROUNDS; round++) {
+            int count = 0;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < calls; i++)
+                for (int j = 0; j < traps.length; j++)
+                    if (isTouchingPerPixel(traps[j], hitMasks[j], large)) count++;
+            long perPixelNanos = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            for (int i = 0; i < calls; i++)
+                for (int j = 0; j < traps.length; j++)
+                    if (traps[j].isTouching(large)) count--;
+            long summedAreaNanos = System.nanoTime() - startTime;
+            if (round == ROUNDS - 1)
+                System.out.printf("full 80x80 overlap: per-pixel loop %.1f ns, isTouching() %.1f ns per call (%d)%n",
+                        perPixelNanos / (double) (calls * traps.length), summedAreaNanos / (double) (calls * traps.length), count);
+        }
+    }
+
+    /**
+     * The check of {@link Trap#isTouching(GameObject)} before the summed-area table:
+     * every world pixel of the overlap of the hitboxes is mapped to the trap's image and looked up in its mask.
+     */
+    private static boolean isTouchingPerPixel(Trap trap, HitMask hitMask, GameObject object) {
+        Rectangle thisHitbox = trap.getHitbox(), otherHitbox = object.getHitbox();
+        if (!thisHitbox.overlaps(otherHitbox)) return false;
+
+        float scale = (float) TILE_SCREEN_SIZE * 0.8f / 32f;
+        int height = trap.getTextureRegion().getRegionHeight();
+        int startX = Math.max((int) thisHitbox.x, (int) otherHitbox.x);
+        int startY = Math.max((int) thisHitbox.y, (int) otherHitbox.y);
+        int endX = Math.min((int) (thisHitbox.x + thisHitbox.width), (int) (otherHitbox.x + otherHitbox.width));
+        int endY = Math.min((int) (thisHitbox.y + thisHitbox.height), (int) (otherHitbox.y + otherHitbox.height));
+        for (int x = startX; x < endX; x++) {
+            for (int y = startY; y < endY; y++) {
+                int localX = (int) ((x - thisHitbox.x) / scale);
+                int localY = height - (int) ((y - thisHitbox.y) / scale) - 1;
+                if (hitMask.isSolid(localX, localY)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a texture region of the given pixels without a texture, since the benchmark runs without an OpenGL context.
+     */
+    private static TextureRegion createRegion(int x, int y, int width, int height) {
+        return new TextureRegion() {
+            @Override
+            public int getRegionX() {
+                return x;
+            }
+
+            @Override
+            public int getRegionY() {
+                return y;
+            }
+
+            @Override
+            public int getRegionWidth() {
+                return width;
+            }
+
+            @Override
+            public int getRegionHeight() {
+                return height;
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures how long the maps of the seven levels take to load: with the line-by-line parser that
+ * {@link PropertiesMapParser} replaced, with {@link PropertiesMapParser} itself, and from a compiled {@link LevelFile}. <br>
+ * It is run by the Gradle task {@code benchMapParsing} with the directory of the maps as its argument,
+ * and fails if the two parsers don't give the same map.
+ */
+public final class MapParsingBenchmark {
+    private static final int LEVELS = 7;
+    private static final int LOADS = 200;
+    private static final int ROUNDS = 3;
+
+    private MapParsingBenchmark() {
+    }
+
+    /**
+     * The result of the old parser: the tiles of every cell under its "x,y" key, and the other properties.
+     */
+    private static class OldMap {
+        final ObjectMap<String, Array<Integer>> tiles = new ObjectMap<>();
+        final ObjectMap<String, String> properties = new ObjectMap<>();
+        int width = 1, height = 1, layerCount = 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mapDirectory = (args.length > 0) ? args[0] : "maps";
+        String[] files = new String[LEVELS];
+        for (int level = 0; level < LEVELS; level++)
+            files[level] = mapDirectory + "/level-" + level + "-map.properties";
+
+        ByteBuffer[] compiled = new ByteBuffer[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            MapData mapData = PropertiesMapParser.parse(files[level]);
+            checkSameMap(files[level], parseOld(files[level]), mapData);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            LevelFile.write(mapData, out);
+            compiled[level] = ByteBuffer.wrap(out.toByteArray());
+        }
+        System.out.println("Both parsers give the same map on all " + LEVELS + " levels");
+
+        for (int round = 0; round < ROUNDS; round++) { // the first rounds warm up the JIT, only the last one is printed
+            if (round == ROUNDS - 1)
+                System.out.println("level | old parser | PropertiesMapParser | compiled level");
+            for (int level = 0; level < LEVELS; level++) {
+                long startTime = System.nanoTime();
+                for (int i = 0; i < LOADS; i++) parseOld(files[level]);
+                long oldNanos = System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                for (int i = 0; i < LOADS; i++) PropertiesMapParser.parse(files[level]);
+                long newNanos = System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                for (int i = 0; i < LOADS; i++) LevelFile.read(compiled[level].duplicate());
+                long compiledNanos = System.nanoTime() - startTime;
+                if (round == ROUNDS - 1)
+                    System.out.printf("%5d | %7.0f us | %16.0f us | %11.0f us%n", level,
+                            oldNanos / 1e3 / LOADS, newNanos / 1e3 / LOADS, compiledNanos / 1e3 / LOADS);
+            }
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocations) {
+            for (int level = 0; level < LEVELS; level++) {
+                long before = allocations.getCurrentThreadAllocatedBytes();
+                parseOld(files[level]);
+                long between = allocations.getCurrentThreadAllocatedBytes();
+                PropertiesMapParser.parse(files[level]);
+                long after = allocations.getCurrentThreadAllocatedBytes();
+                System.out.printf("level %d allocates %d KB with the old parser, %d KB with PropertiesMapParser%n",
+                        level, (between - before) / 1024, (after - between) / 1024);
+            }
+        }
+    }
+
+    /**
+     * The parser before {@link PropertiesMapParser}: every line is split with regular expressions,
+     * and every tile ID is boxed into a list under the string key of its cell.
+     * Unlike the original, it reads UTF-8 like the new one, so that the properties can be compared.
+     */
+    private static OldMap parseOld(String filePath) throws IOException {
+        OldMap map = new OldMap();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.contains("=")) continue;
+                String[] parts = line.split("=");
+                if (parts.length != 2) continue;
+                String key = parts[0].trim(), value = parts[1].trim();
+                if (key.matches("\\d+, *\\d+")) {
+                    for (String tile : value.split(",")) {
+                        Array<Integer> list = map.tiles.get(key);
+                        if (list == null) {
+                            list = new Array<>();
+                            map.tiles.put(key, list);
+                        }
+                        list.add(Integer.parseInt(tile));
+                        map.layerCount = Math.max(map.layerCount, list.size);
+                    }
+                    String[] coordinates = key.split(",");
+                    map.width = Math.max(map.width, Integer.parseInt(coordinates[0].trim()) + 1);
+                    map.height = Math.max(map.height, Integer.parseInt(coordinates[1].trim()) + 1);
+                } else {
+                    map.properties.put(key, value);
+                }
+            }
+        }
+        return map;
+    }
+
+    private static void checkSameMap(String filePath, OldMap expected, MapData actual) {
+        if (actual.getWidth() != expected.width || actual.getHeight() != expected.height || actual.getLayerCount() != expected.layerCount)
+            throw new IllegalStateException(filePath + ": the size or the number of layers differs");
+        for (int layer = 0; layer < actual.getLayerCount(); layer++) {
+            for (int x = 0; x < expected.width; x++) {
+                for (int y = 0; y < expected.height; y++) {
+                    Array<Integer> tiles = expected.tiles.get(x + "," + y);
+                    int tile = (tiles == null || tiles.size <= layer) ? MapData.EMPTY : tiles.get(layer);
+                    if (actual.getTile(layer, x, y) != tile)
+                        throw new IllegalStateException(filePath + ": the tile of layer " + layer + " at " + x + "," + y + " differs");
+                }
+            }
+        }
+        if (!actual.getProperties().equals(expected.properties))
+            throw new IllegalStateException(filePath + ": the properties differ");
+    }
+}
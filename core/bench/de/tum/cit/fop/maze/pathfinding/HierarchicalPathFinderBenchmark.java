@@ -0,0 +1,145 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.GridSearch;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures {@link HierarchicalPathFinder} queries between random tiles of a generated 1000x1000 maze,
+ * and checks every path against a BFS on the same grid. <br>
+ * It is run by the Gradle task {@code benchPathfinding}, and fails if a path is invalid
+ * or if the queries take a millisecond or longer on average.
+ */
+public final class HierarchicalPathFinderBenchmark {
+    private static final int SIZE = 1000;
+    private static final int QUERIES = 500;
+    private static final int ROUNDS = 5;
+    private static final long SEED = 10;
+    private static final double TARGET_MILLIS = 1.0;
+
+    private HierarchicalPathFinderBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+        NavigationGrid grid = generateMaze(SIZE, SIZE, random);
+        grid.labelRegions();
+
+        long startTime = System.nanoTime();
+        HierarchicalGraph graph = new HierarchicalGraph(grid);
+        System.out.printf("%dx%d maze: %d abstract nodes, built in %.1f ms%n",
+                SIZE, SIZE, graph.getNodeCount(), (System.nanoTime() - startTime) / 1e6);
+
+        int[] starts = new int[QUERIES], goals = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = randomWalkableTile(grid, random);
+            goals[i] = randomWalkableTile(grid, random);
+        }
+
+        HierarchicalPathFinder pathFinder = new HierarchicalPathFinder(graph);
+        checkPaths(grid, pathFinder, starts, goals);
+
+        IntArray path = new IntArray();
+        long[] queryNanos = new long[QUERIES];
+        long expandedNodes = 0;
+        for (int round = 0; round < ROUNDS; round++) { // the first rounds warm up the JIT, only the last one counts
+            expandedNodes = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                long queryStart = System.nanoTime();
+                pathFinder.findPath(starts[i], goals[i], path);
+                queryNanos[i] = System.nanoTime() - queryStart;
+                expandedNodes += pathFinder.getExpandedNodes();
+            }
+        }
+
+        double averageMillis = Arrays.stream(queryNanos).sum() / 1e6 / QUERIES;
+        Arrays.sort(queryNanos);
+        System.out.printf("%d queries: %.3f ms on average, %.3f ms median, %.3f ms at the 99th percentile, %d abstract nodes expanded%n",
+                QUERIES, averageMillis, queryNanos[QUERIES / 2] / 1e6, queryNanos[QUERIES * 99 / 100] / 1e6, expandedNodes / QUERIES);
+        if (averageMillis >= TARGET_MILLIS) {
+            System.err.printf("The queries take %.3f ms on average, the target is below %.1f ms%n", averageMillis, TARGET_MILLIS);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks that every path is found exactly when the BFS finds one, that it is connected and only walkable,
+     * and prints how much longer the paths are than the shortest ones.
+     */
+    private static void checkPaths(NavigationGrid grid, PathFinder pathFinder, int[] starts, int[] goals) {
+        GridSearch bfs = new GridSearch(grid);
+        IntArray path = new IntArray(), shortestPath = new IntArray();
+        long length = 0, shortestLength = 0;
+        for (int i = 0; i < starts.length; i++) {
+            boolean isFound = pathFinder.findPath(starts[i], goals[i], path);
+            if (isFound != bfs.findPath(starts[i], goals[i], shortestPath))
+                throw new IllegalStateException("Query " + i + ": found a path " + isFound + ", the BFS " + !isFound);
+            if (!isFound) continue;
+
+            if (path.first() != starts[i] || path.peek() != goals[i])
+                throw new IllegalStateException("Query " + i + ": the path doesn't connect the start and the goal");
+            for (int j = 1; j < path.size; j++) {
+                int from = path.get(j - 1), to = path.get(j);
+                int distance = Math.abs(grid.getX(from) - grid.getX(to)) + Math.abs(grid.getY(from) - grid.getY(to));
+                if (distance != 1 || !grid.isWalkable(to))
+                    throw new IllegalStateException("Query " + i + ": invalid step " + j + " of the path");
+            }
+            length += path.size;
+            shortestLength += shortestPath.size;
+        }
+        System.out.printf("All paths are valid, %.2f%% longer than the shortest ones on average%n",
+                (length / (double) shortestLength - 1) * 100);
+    }
+
+    /**
+     * Generates a maze of corridors between 2x2 cells with a depth-first search,
+     * and then opens random tiles, which adds some loops.
+     */
+    static NavigationGrid generateMaze(int width, int height, Random random) {
+        NavigationGrid grid = new NavigationGrid(width, height);
+        int cellsX = width / 2, cellsY = height / 2;
+        boolean[] visited = new boolean[cellsX * cellsY];
+        int[] stack = new int[cellsX * cellsY];
+        int stackSize = 0;
+        int[] directions = {0, 1, 2, 3};
+        stack[stackSize++] = 0;
+        visited[0] = true;
+        grid.setWalkable(0, 0, true);
+        while (stackSize > 0) {
+            int cell = stack[stackSize - 1];
+            int cellX = cell / cellsY, cellY = cell % cellsY;
+            for (int i = directions.length - 1; i > 0; i--) { // shuffle
+                int j = random.nextInt(i + 1);
+                int direction = directions[i];
+                directions[i] = directions[j];
+                directions[j] = direction;
+            }
+            boolean hasMoved = false;
+            for (int direction : directions) {
+                int nextX = cellX + ClusterSearch.DIRECTION_X[direction], nextY = cellY + ClusterSearch.DIRECTION_Y[direction];
+                if (nextX < 0 || nextY < 0 || nextX >= cellsX || nextY >= cellsY || visited[nextX * cellsY + nextY]) continue;
+                visited[nextX * cellsY + nextY] = true;
+                grid.setWalkable(2 * cellX + ClusterSearch.DIRECTION_X[direction], 2 * cellY + ClusterSearch.DIRECTION_Y[direction], true);
+                grid.setWalkable(2 * nextX, 2 * nextY, true);
+                stack[stackSize++] = nextX * cellsY + nextY;
+                hasMoved = true;
+                break;
+            }
+            if (!hasMoved) stackSize--;
+        }
+        for (int i = 0; i < width * height / 40; i++)
+            grid.setWalkable(random.nextInt(width), random.nextInt(height), true);
+        return grid;
+    }
+
+    private static int randomWalkableTile(NavigationGrid grid, Random random) {
+        int tile;
+        do {
+            tile = random.nextInt(grid.size());
+        } while (!grid.isWalkable(tile));
+        return tile;
+    }
+}
@@ -15,6 +15,9 @@
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.game_objects.Player;
+import de.tum.cit.fop.maze.level.LevelCache;
+import de.tum.cit.fop.maze.level.LevelPreloader;
+import de.tum.cit.fop.maze.level.PreparedLevel;
 import de.tum.cit.fop.maze.screens.*;
 import de.tum.cit.fop.maze.tiles.Exit;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
@@ -22,6 +25,7 @@
 import java.util.HashMap;
 import java.util.Map;
 
+import static de.tum.cit.fop.maze.util.Constants.LEVEL_CACHE_CAPACITY_BYTES;
 import static de.tum.cit.fop.maze.util.Constants.TOTAL_LEVELS;
 
 /**
@@ -79,6 +83,8 @@ public void setGameLevel(int gameLevel) {
     private final Map<String, Long> soundIds = new HashMap<>();
 
     private SoundManager soundManager;
+    private LevelCache levelCache; // the recently played levels, so that retrying one doesn't load it again
+    private LevelPreloader levelPreloader; // prepares the next level while the victory panel is shown
 
 
 
@@ -109,6 +115,8 @@ public void create() {
         soundList = new Array<>();
 
         soundManager = new SoundManager();
+        levelCache = new LevelCache(LEVEL_CACHE_CAPACITY_BYTES);
+        levelPreloader = new LevelPreloader(levelCache);
 
         backgroundMusic = Gdx.audio.newMusic(Gdx.files.internal("music/Bruno_Belotti_-_Nel_giardino_dello_Zar__Polka_Loop.mp3"));
         backgroundMusic.setLooping(true);
@@ -432,6 +440,8 @@ public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
         spriteBatch.dispose(); // Dispose the spriteBatch
+        levelPreloader.dispose();
+        levelCache.dispose();
         skinCraft.dispose(); // Dispose the skin
         skinPlain.dispose();
 
@@ -516,6 +526,18 @@ public GameScreen getGameScreen() {
         return gameScreen;
     }
 
+    /**
+     * Returns the prepared level for a new {@link GameScreen}, from the {@link LevelCache} if the level has been
+     * played recently or preloaded, and waits for the preloading first if the level is still being preloaded.
+     *
+     * @param level The level of the game.
+     * @return the prepared level, which is owned by the cache.
+     */
+    public PreparedLevel getPreparedLevel(int level) {
+        levelPreloader.await(level);
+        return levelCache.get(level);
+    }
+
     public Sound getSoundEffectKey() {
         return soundEffectKey;
     }
@@ -572,6 +594,8 @@ public void checkExitToNextLevel(Player player) {
             else if (!gameScreen.isPaused()) {
                 gameScreen.setPaused(true);
                 gameScreen.createVictoryPanel();
+                if (gameLevel < TOTAL_LEVELS) // there is no level after the last one
+                    levelPreloader.preload(gameLevel + 1); // while the player is looking at the panel
                 //this.pause();
                 this.getBackgroundMusic().pause();
                 this.getPauseMusic().pause();
@@ -588,6 +612,7 @@ else if (!gameScreen.isPaused()) {
      * by disposing of the current game screen, creating a new one, and resetting
      * necessary states (such as the key collection status). It also ensures that the
      * game is not paused for the new level.
+     * If the level has been preloaded during the victory panel, only its textures are uploaded here.
      *
      * @see GameScreen The screen displayed during gameplay.
      */
@@ -599,7 +624,7 @@ public void startNextLevel() {
             gameScreen.dispose();
         }
 
-        // Create and set the new game screen
+        // Create and set the new game screen, with the level that has been preloaded during the victory panel
         gameScreen = new GameScreen(this);
         setScreen(gameScreen);
 
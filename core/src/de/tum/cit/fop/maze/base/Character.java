@@ -5,7 +5,8 @@
 import de.tum.cit.fop.maze.level.LevelManager;
 import de.tum.cit.fop.maze.rendering.SpeechBubble;
 import de.tum.cit.fop.maze.tiles.Tile;
-import de.tum.cit.fop.maze.tiles.Wall;
+import de.tum.cit.fop.maze.util.CollisionBitmap;
+import de.tum.cit.fop.maze.util.Sweep;
 
 import static de.tum.cit.fop.maze.util.Constants.*;
 import static java.lang.Math.abs;
@@ -32,6 +33,9 @@ public abstract class Character extends GameObject {
 
     protected final LevelManager levels;
 
+    protected final Sweep wallSweep = new Sweep(); // reused by every move, see moveAndSlide()
+    protected boolean isBlockedHorizontally, isBlockedVertically; // by a wall during the last move
+
     protected float SPEECH_COOLDOWN_TIME = 5;
     protected float speechCooldown = SPEECH_COOLDOWN_TIME;
     public boolean canSpeak = false;
@@ -70,39 +74,96 @@ public Character(float x, float y, int width, int height, int hitboxWidth, int h
      * Checks if the player can move to a given position because of the wall blocks.
      * <p>
      * This method checks a grid of points (total of five on each side) within the object's hitbox to ensure that
-     * none of these points overlap with an instance of the Wall class. If any of the points within the hitbox
+     * none of these points overlap with the solid pixels of a wall. If any of the points within the hitbox
      * intersects a wall, the object cannot move to the specified position.
+     * Every point is a single lookup in the level's {@link CollisionBitmap}.
      *
      * @param x The x-coordinate to check.
      * @param y The y-coordinate to check.
      * @return True if the position is valid, false otherwise.
      */
     protected boolean canMoveTo(float x, float y){
+        y += getWallBoxOffsetY();
         // Points to check along each edge (more points = more accurate but slower)
         int numPointsToCheck = 20;
         // Check top edge
         for (int i = (int) (-getHitboxWidthOnScreen() / 2); i <= getHitboxWidthOnScreen() / 2; i += (int) (getHitboxWidthOnScreen() / numPointsToCheck))
-            if (isPointWithinInstanceOf(x, y, i, -getHitboxHeightOnScreen() / 2, Wall.class))
+            if (isPointInWall(x + i, y - getHitboxHeightOnScreen() / 2))
                 return false;
         // Check bottom edge
         for (int i = (int) (-getHitboxWidthOnScreen() / 2); i <= getHitboxWidthOnScreen() / 2; i += (int) (getHitboxWidthOnScreen() / numPointsToCheck)) {
-            if (isPointWithinInstanceOf(x, y, i, getHitboxHeightOnScreen() / 2, Wall.class))
+            if (isPointInWall(x + i, y + getHitboxHeightOnScreen() / 2))
                 return false;
         }
         // Check left edge
         for (int j = (int) (-getHitboxHeightOnScreen() / 2); j <= getHitboxHeightOnScreen() / 2; j += (int) (getHitboxHeightOnScreen() / numPointsToCheck)) {
-            if (isPointWithinInstanceOf(x, y, -getHitboxWidthOnScreen() / 2, j, Wall.class))
+            if (isPointInWall(x - getHitboxWidthOnScreen() / 2, y + j))
                 return false;
         }
         // Check right edge
         for (int j = (int) (-getHitboxHeightOnScreen() / 2); j <= getHitboxHeightOnScreen() / 2; j += (int) (getHitboxHeightOnScreen() / numPointsToCheck)) {
-            if (isPointWithinInstanceOf(x, y, getHitboxWidthOnScreen() / 2, j, Wall.class))
+            if (isPointInWall(x + getHitboxWidthOnScreen() / 2, y + j))
                 return false;
         }
         return true;
     }
 
 
+    /**
+     * Returns the vertical offset from the character's position to the center of the box that collides with the walls.
+     * By default, the box is the hitbox itself.
+     *
+     * @return the offset in world pixels.
+     */
+    protected float getWallBoxOffsetY() {
+        return 0;
+    }
+
+    /**
+     * Moves the character by the given motion, but not into the walls. <br>
+     * The hitbox is swept along the motion against the level's {@link CollisionBitmap} in one query,
+     * which gives the point where it runs into a wall and the rest of the motion along that wall.
+     * The character is moved to that point and then slides along the wall (which is swept as well),
+     * instead of only probing the destination on each axis, which a fast character could skip a thin wall with.
+     * <p>
+     * Afterward, {@code isBlockedHorizontally} and {@code isBlockedVertically} tell which axes were stopped by a wall.
+     *
+     * @param dx The horizontal motion in world pixels.
+     * @param dy The vertical motion in world pixels.
+     * @return {@code true} if a wall was hit; {@code false} if the character moved the whole way.
+     */
+    protected boolean moveAndSlide(float dx, float dy) {
+        isBlockedHorizontally = false;
+        isBlockedVertically = false;
+        float offsetY = getWallBoxOffsetY();
+        float halfWidth = getHitboxWidthOnScreen() / 2, halfHeight = getHitboxHeightOnScreen() / 2;
+
+        // the second sweep is the slide, which can only be stopped on the other axis, so there is nothing left afterward
+        for (int i = 0; i < 2 && (dx != 0 || dy != 0); i++) {
+            levels.getCollisionBitmap().sweep(x, y + offsetY, halfWidth, halfHeight, dx, dy, wallSweep);
+            x = wallSweep.getContactX();
+            y = wallSweep.getContactY() - offsetY;
+            if (!wallSweep.isHit()) break;
+
+            isBlockedHorizontally |= wallSweep.getNormalX() != 0;
+            isBlockedVertically |= wallSweep.getNormalY() != 0;
+            dx = wallSweep.getSlideX();
+            dy = wallSweep.getSlideY();
+        }
+        return isBlockedHorizontally || isBlockedVertically;
+    }
+
+    /**
+     * Checks whether a point is on a solid pixel of a wall.
+     *
+     * @param pointX The x-coordinate of the point in world space.
+     * @param pointY The y-coordinate of the point in world space.
+     * @return {@code true} if the point collides with a wall, {@code false} otherwise.
+     */
+    protected boolean isPointInWall(float pointX, float pointY) {
+        return levels.getCollisionBitmap().isSolid(pointX, pointY);
+    }
+
     /**
      * Checks whether a given point, with an applied offset, is within an instance of a specific class.
      *
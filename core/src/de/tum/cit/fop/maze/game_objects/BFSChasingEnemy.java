@@ -3,26 +3,66 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntArray;
 import de.tum.cit.fop.maze.MazeRunnerGame;
+import de.tum.cit.fop.maze.level.FlowField;
 import de.tum.cit.fop.maze.level.LevelManager;
+import de.tum.cit.fop.maze.pathfinding.DStarLitePathFinder;
+import de.tum.cit.fop.maze.pathfinding.PathRequest;
+import de.tum.cit.fop.maze.pathfinding.PathRequestQueue;
+import de.tum.cit.fop.maze.pathfinding.PathScheduler;
 import de.tum.cit.fop.maze.tiles.TileType;
+import de.tum.cit.fop.maze.util.NavigationGrid;
 import de.tum.cit.fop.maze.util.Position;
 
-import java.util.*;
-
 import static de.tum.cit.fop.maze.util.Constants.*;
 import static de.tum.cit.fop.maze.util.Position.getTilePosition;
+import static de.tum.cit.fop.maze.util.Position.getWorldCoordinateInPixels;
 import static java.lang.Math.abs;
 
 public class BFSChasingEnemy extends ChasingEnemy {
 
-    private final Random random;
-    private final List<int[]> shuffledDirections;
+    /**
+     * How a BFS enemy finds the shortest path to the player, chosen by the key {@code chaseStrategy}
+     * in the ".properties" file of the level, e.g., {@code chaseStrategy=dStarLite}.
+     */
+    public enum ChaseStrategy {
+        // look up the next step in the flow field that the level shares between all the enemies. The default one.
+        FLOW_FIELD,
+        // plan with an own incremental D* Lite planner, which repairs its path when the enemy or the player moves
+        D_STAR_LITE;
+
+        /**
+         * Returns the strategy with the given name from the ".properties" file (case-insensitive, underscores are ignored).
+         *
+         * @param name The name of the strategy, e.g., "flowField" or "dStarLite".
+         * @return the matching strategy, or {@link #FLOW_FIELD} if the name is empty or unknown.
+         */
+        public static ChaseStrategy fromProperty(String name) {
+            for (ChaseStrategy strategy : values()) {
+                if (strategy.name().replace("_", "").equalsIgnoreCase(name.trim().replace("_", "")))
+                    return strategy;
+            }
+            return FLOW_FIELD;
+        }
+    }
+
+    private final ChaseStrategy chaseStrategy;
+    private final boolean checksPathDistance; // whether the walking distance is checked after the line of sight
+    private DStarLitePathFinder planner; // only for D_STAR_LITE, created once the map is loaded completely
+    private final IntArray directPath; // the planned path to the player, only for D_STAR_LITE
+    private int plannedStart = -1, plannedGoal = -1; // the tiles of the enemy and of the player of the planned path
+    private int plannedVersion; // the version of the grid that the planner's search tree was built on
+    private final PathRequest plannerRequest; // the turn of the planner when it has to start over, only for D_STAR_LITE
+
+    private final IntArray path; // reused for every search, so that the pathfinding doesn't allocate
+    private final IntArray alternativeGoals; // the tiles around the player, reused for every search
+    private final PathRequest pathRequest; // the background search for the alternative path, reused for every search
 
     /**
      * Constructs a new BFSChasingEnemy object, initializing its properties and setting up the enemy's behavior.
-     * This constructor sets the detection radius, random seed, and initializes the movement directions with
-     * randomness for exploration. It also calls the superclass constructor to initialize shared attributes.
+     * This constructor sets the detection radius and the reusable path arrays.
+     * It also calls the superclass constructor to initialize shared attributes.
      *
      * @param textureRegion   The texture region to represent the enemy's appearance.
      * @param tileX           The initial X coordinate of the enemy in the grid (tile-based system).
@@ -41,29 +81,34 @@ public class BFSChasingEnemy extends ChasingEnemy {
      * Initializes the enemy with the following properties:
      * <ul>
      *     <li>Detection radius is set to 600 units.</li>
-     *     <li>Random seed is generated using the object's hash code and the enemy's tile position to ensure
-     *         randomness based on its location.</li>
-     *     <li>Movement directions (right, left, up, down) are defined and shuffled to introduce unpredictability
-     *         in exploration patterns.</li>
+     *     <li>The walking distance to the player is only checked if the level has {@code detectionPathCheck=true}.</li>
+     *     <li>The path array is created once and filled from the level's {@link PathRequestQueue} on every search.</li>
      * </ul>
      */
     public BFSChasingEnemy(TextureRegion textureRegion, int tileX, int tileY, int width, int height, int hitboxWidth, int hitboxHeight,
                            float widthOnScreen, float heightOnScreen, float lives, LevelManager levels, MazeRunnerGame game, int enemyIndex) {
         super(textureRegion, tileX, tileY, width, height, hitboxWidth, hitboxHeight, widthOnScreen, heightOnScreen, lives, levels, game, enemyIndex);
         detectionRadius = 600f;
-        random = new Random(this.hashCode() + tileX * 31L + 31L * 31 * tileY); // Seed the random generator with the unique hashcode
-        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
-        // Shuffle the direction array to introduce randomness in exploration
-        shuffledDirections = Arrays.asList(directions);
-        Collections.shuffle(shuffledDirections, random);
+        checksPathDistance = levels.isProperties("detectionPathCheck");
+        chaseStrategy = ChaseStrategy.fromProperty(levels.getProperties("chaseStrategy"));
+        directPath = new IntArray();
+        path = new IntArray();
+        alternativeGoals = new IntArray(8);
+        pathRequest = new PathRequest();
+        plannerRequest = new PathRequest();
     }
 
     /**
      * Chases the player by determining the optimal path to the player's position using BFS (Breadth-First Search).
      * Override method of {@link ChasingEnemy#chase}
      * <p>
+     * The BFS towards the player is shared by all the BFS enemies through the level's {@link FlowField},
+     * so this enemy only has to look up its next step.
+     * With the {@link ChaseStrategy#D_STAR_LITE} strategy, the enemy plans with its own incremental planner instead.
+     * <p>
      * If the path to the player is unavailable, the method checks the surrounding 3x3 grid
-     * to find an alternative path. If all paths fail, the default chase behavior from the superclass is invoked.
+     * to find an alternative path, with a search in the background that is handed back on one of the next frames.
+     * If all paths fail, the default chase behavior from the superclass is invoked.
      * <p>
      * This method reduces the enemy's alert time and ensures it moves strategically towards the player.
      *
@@ -75,36 +120,20 @@ protected void chase(Player player, float delta) {
         alertTime -= delta;
 
         if (handleCooldown(player, delta)) return;
-        if (!super.isPlayerWithinDetectionRadius(player, detectionRadius)) // if the player is not even in the radius, just don't find path
-            return;
 
-        // Find the path to the player using BFS
-        List<Position> path = findPathTo(player.getX(), player.getY());
-        // If a path exists and has more than one step
-        if (processPath(path, delta))
+        // Follow the flow field towards the player, which is the same path that a BFS to the player would give,
+        // or this enemy's own incremental plan if the level says so
+        if ((chaseStrategy == ChaseStrategy.D_STAR_LITE) ? followPlannedPath(player, delta) : followFlowField(delta))
             return;
 
         // ELSE path isn't found:
-        // If no direct path is found, search in a surrounding 3x3 grid for an alternative path
-        boolean reachedAlternative = false;
-        for (int offsetX = -1; offsetX <= 1; offsetX++){
-            for (int offsetY = -1; offsetY <= 1; offsetY++){
-                if (offsetX == 0 && offsetY == 0) continue; // Skip the current tile
-                // Attempt to find a path to the player from an adjacent tile
-                float altX = player.getX() + offsetX * TILE_SCREEN_SIZE;
-                float altY = player.getY() + offsetY * TILE_SCREEN_SIZE;
-                if ((altX - x) * (altX - x) + (altY - y) * (altY - y) < TILE_SCREEN_SIZE * TILE_SCREEN_SIZE * 2){
-                    reachedAlternative = true;
-                    break;
-                }
-
-                List<Position> alternativePath = findPathTo(altX, altY);
-                if (!reachedAlternative && processPath(alternativePath, delta)){
-                    //Gdx.app.debug("BFS alt", "Alternative path found, chasing...");
-                    return;
-                }
-
-            }
+        // If no direct path is found, ask the workers for an alternative path to the surrounding 3x3 grid,
+        // and keep following the previous alternative path while the search is running
+        pathRequest.takeResult(path); // the new path, if the workers have found one since the last frame
+        requestAlternativePath(player);
+        if (followPath(delta)){
+            //Gdx.app.debug("BFS alt", "Alternative path found, chasing...");
+            return;
         }
 
         // If no alternative path is found, fallback to the default chase behavior of the ChasingEnemy
@@ -114,189 +143,216 @@ protected void chase(Player player, float delta) {
     }
 
     /**
-     * Processes the path and moves towards the next position if a valid path exists.
+     * Moves one step along the level's shared {@link FlowField} towards the player.
+     * The flow field is rooted at the player's tile, so the next step is a single lookup
+     * instead of a BFS of this enemy.
      *
-     * @param path  The list of positions representing the path to the target.
      * @param delta The time in seconds since the last frame.
-     * @return {@code true} if the path is valid and the enemy moves; {@code false} otherwise.
+     * @return {@code true} if the player is reachable and the enemy moves; {@code false} otherwise.
      */
-    private boolean processPath(List<Position> path, float delta) {
-        if (path != null && path.size() > 1) {
-            // Move towards the next position in the path
-            Position nextPosition = path.get(1);
-            targetX = nextPosition.convertTo(Position.PositionUnit.PIXELS).getX();
-            targetY = nextPosition.convertTo(Position.PositionUnit.PIXELS).getY();
-            super.moveTowardsTarget(delta);
-
-            for (ChasingEnemy enemy : iterate(levels.chasingEnemies)) {
-                if (!enemy.equals(this) && enemy.isTouching(this)) {
-                    targetX = x + (x - enemy.getX()) * 5000;
-                    targetY = y + (y - enemy.getY()) * 5000;
-                    moveTowardsTarget(delta);
-                    Gdx.app.debug("BFS Enemy", "Towards Target Moved Away from Other enemies because of touching...");
-                }
-            }
-            return true;
+    private boolean followFlowField(float delta) {
+        FlowField flowField = levels.getFlowField();
+        int tileX = (int) (x / TILE_SCREEN_SIZE);
+        int tileY = (int) (y / TILE_SCREEN_SIZE);
+        int distance = flowField.getDistance(tileX, tileY);
+        if (distance == FlowField.UNREACHABLE || distance == 0) // same as a path with no more than one step
+            return false;
 
-        }
-        return false; // No valid path
+        return moveToTile(flowField.getNextTileX(tileX, tileY), flowField.getNextTileY(tileX, tileY), delta);
     }
 
     /**
-     * Finds the shortest path from the current position to the player's position using Breadth-First Search (BFS).
-     * This method returns a list of positions representing the path from the current location to the target (player) location.
-     * If no path is found, it returns null.
+     * Moves one step along the path to the player from this enemy's own {@link DStarLitePathFinder}.
+     * The planner is only asked again when the enemy or the player has moved onto another tile,
+     * and then it only repairs the part of its search tree that has changed, instead of searching from scratch.
+     * <p>
+     * When the planner has to start over (the player has jumped away, or the walls have changed),
+     * it searches like a plain search on the render thread, so it waits for its turn with the level's {@link PathScheduler},
+     * and the enemy keeps following its old path in the meantime.
+     * Every planning is timed and taken from the frame budget of the searches.
      *
-     * @param playerX The X-coordinate of the player's position in world coordinates.
-     * @param playerY The Y-coordinate of the player's position in world coordinates.
-     * @return A list of positions representing the path from the current position to the player's position, or null if no path is found.
+     * @param player The {@link Player} to move towards.
+     * @param delta  The time in seconds since the last frame.
+     * @return {@code true} if the player is reachable and the enemy moves; {@code false} otherwise.
      */
-    private List<Position> findPathTo(float playerX, float playerY) {
-        if (player == null) return null;
-
-        Position start = getTilePosition(x, y);
-        Position goal = getTilePosition(playerX, playerY);
-
-        Queue<Position> queue = new LinkedList<>();
-        Map<Position, Position> cameFrom = new HashMap<>();
-        Set<Position> visited = new HashSet<>();
-
-        queue.add(start);
-        visited.add(start);
-
-        while (!queue.isEmpty()) {
-            Position current = queue.poll();
+    private boolean followPlannedPath(Player player, float delta) {
+        NavigationGrid grid = levels.getNavigationGrid();
+        int startX = (int) (x / TILE_SCREEN_SIZE), startY = (int) (y / TILE_SCREEN_SIZE);
+        int goalX = (int) (player.getX() / TILE_SCREEN_SIZE), goalY = (int) (player.getY() / TILE_SCREEN_SIZE);
+        if (!grid.isInBounds(startX, startY) || !grid.isInBounds(goalX, goalY))
+            return false;
 
-            if (current.equals(goal)) {
-                // Path found
-                Gdx.app.debug("BFS", "Path found");
-                return reconstructPath(cameFrom, start, goal);
-            }
+        if (planner == null) { // the grid doesn't exist yet when the enemy is created
+            planner = new DStarLitePathFinder(grid);
+            plannedVersion = grid.getVersion();
+        }
+        if (plannedVersion != grid.getVersion()) { // the walls have changed, so the search tree is outdated
+            planner.invalidate();
+            plannedVersion = grid.getVersion();
+            plannedStart = -1;
+        }
 
-            for (Position neighbor : getNeighbors(current)) {
-                if (!visited.contains(neighbor)) {
-                    queue.add(neighbor);
-                    visited.add(neighbor);
-                    cameFrom.put(neighbor, current);
-                }
+        int start = grid.toIndex(startX, startY), goal = grid.toIndex(goalX, goalY);
+        if (start != plannedStart || goal != plannedGoal) {
+            PathScheduler scheduler = levels.getPathScheduler();
+            boolean isStartingOver = planner.isStartingOver(goal);
+            // the enemies that are close to the player and have no path to follow start over first
+            boolean isFar = (player.getX() - x) * (player.getX() - x) + (player.getY() - y) * (player.getY() - y) > detectionRadius * detectionRadius / 4;
+            int indexOnPath = directPath.indexOf(start);
+            boolean hasPath = indexOnPath != -1 && indexOnPath != directPath.size - 1;
+            if (!isStartingOver || scheduler.acquire(plannerRequest, (isFar ? 1 : 0) + (hasPath ? 1 : 0))) {
+                long startTime = System.nanoTime();
+                planner.findPath(start, goal, directPath); // stays empty if there is no path
+                scheduler.charge(System.nanoTime() - startTime, isStartingOver);
+                plannedStart = start;
+                plannedGoal = goal;
             }
         }
 
-        return null; // No path found
+        // the enemy may still be on the old path while the planner waits for its turn
+        int index = directPath.indexOf(start);
+        if (index == -1 || index == directPath.size - 1) // off the path, or already at its end
+            return false;
+        int nextTile = directPath.get(index + 1);
+        return moveToTile(grid.getX(nextTile), grid.getY(nextTile), delta);
     }
 
     /**
-     * Returns a list of neighboring positions for a given position based on valid movement directions.
-     * It checks adjacent tiles in all four cardinal directions (up, down, left, right), ensuring they are within bounds
-     * and walkable.
+     * Moves towards the next tile of the current alternative path if the enemy is on it.
+     * Since the path may have been found a few frames ago, the enemy looks up where it is on the path
+     * instead of always taking its second tile.
      *
-     * @param position The current position for which the neighbors are being calculated.
-     * @return A list of valid neighboring positions that are walkable and within the grid boundaries.
+     * @param delta The time in seconds since the last frame.
+     * @return {@code true} if the enemy is on the path and moves; {@code false} otherwise.
      */
-    private List<Position> getNeighbors(Position position) {
-        List<Position> neighbors = new ArrayList<>();
-
-        for (int[] dir : shuffledDirections) {
-            int newX = position.getTileX() + dir[0];
-            int newY = position.getTileY() + dir[1];
-
-            if (newX >= 0 && newY >= 0 &&
-                    newX < horizontalTilesCount && newY < verticalTilesCount &&
-                    isTileWalkable(newX, newY)) {
-                neighbors.add(new Position(newX, newY, Position.PositionUnit.TILES));
-            }
-        }
-
-        return neighbors;
+    private boolean followPath(float delta) {
+        NavigationGrid grid = levels.getNavigationGrid();
+        int tileX = (int) (x / TILE_SCREEN_SIZE), tileY = (int) (y / TILE_SCREEN_SIZE);
+        if (!grid.isInBounds(tileX, tileY)) return false;
+
+        int index = path.indexOf(grid.toIndex(tileX, tileY));
+        if (index == -1 || index == path.size - 1) // off the path, or already at its end
+            return false; // No valid path
+
+        // Move towards the next position in the path
+        int nextTile = path.get(index + 1);
+        return moveToTile(grid.getX(nextTile), grid.getY(nextTile), delta);
     }
 
     /**
-     * Checks if a tile at the specified coordinates (x, y) is walkable.
-     * The tile is considered walkable if its type is not a wall or trap.
+     * Moves towards the center of the given (neighbouring) tile,
+     * and moves away from the other enemies that this enemy is touching.
      *
-     * @param x The X-coordinate of the tile on the map.
-     * @param y The Y-coordinate of the tile on the map.
-     * @return True if the tile is walkable (not a wall or trap), false otherwise.
+     * @param tileX The x-coordinate of the tile to move to.
+     * @param tileY The y-coordinate of the tile to move to.
+     * @param delta The time in seconds since the last frame.
+     * @return always {@code true}, since the enemy moves.
      */
-    private boolean isTileWalkable(int x, int y) {
-        try {
-            TileType tileType = levels.getTileEnumOnMap(x, y);
-            return tileType != TileType.WALL && tileType != TileType.TRAP;//tileType == LevelManager.TileType.OTHER || tileType == LevelManager.TileType.EXIT || tileType == LevelManager.TileType.EXTRA;
-        }
-        catch (ArrayIndexOutOfBoundsException e){
-            Gdx.app.error("BFS Enemy", x  + ", " + y + e.getMessage());
-            return false;
+    private boolean moveToTile(int tileX, int tileY, float delta) {
+        targetX = getWorldCoordinateInPixels(tileX);
+        targetY = getWorldCoordinateInPixels(tileY);
+        super.moveTowardsTarget(delta);
+
+        // the enemies that were touching this one at the start of the frame
+        for (ChasingEnemy enemy : iterate(levels.getEnemyContacts().getContacts(this))) {
+            targetX = x + (x - enemy.getX()) * 5000;
+            targetY = y + (y - enemy.getY()) * 5000;
+            moveTowardsTarget(delta);
         }
+        return true;
     }
 
-
     /**
-     * Reconstructs the path from the start position to the goal position using the "cameFrom" map,
-     * which tracks the positions visited during pathfinding.
-     * The method follows the trail back from the goal to the start, and then reverses the list
-     * to provide the path in the correct order.
+     * Requests the shortest path from the current position to the closest tile around the player.
+     * All the tiles of the surrounding 3x3 grid (except the player's own tile) are the goals of a single search,
+     * which stops at the first one that it reaches.
+     * If one of these tiles is already close to the enemy, it and the ones after it are not searched anymore.
+     * The tiles in another connected region than the enemy are rejected without searching.
+     * <p>
+     * The search runs on the level's {@link PathRequestQueue} once the {@link PathScheduler} grants it,
+     * and its result is handed to this enemy's request on one of the next frames.
+     * The enemies that are far from the player or still have a path to follow are granted last.
+     * While the previous request is still pending, no new one is made.
+     * If there is no tile left to search for, the current path is dropped.
      *
-     * @param cameFrom A map that tracks the previous position for each visited position.
-     * @param start The starting position from which the pathfinding began.
-     * @param goal The goal position that the pathfinding tried to reach.
-     * @return A list of positions representing the path from the start to the goal, in the correct order.
+     * @param player The {@link Player} whose surrounding tiles are the goals.
      */
-    private List<Position> reconstructPath(Map<Position, Position> cameFrom, Position start, Position goal) {
-        List<Position> path = new ArrayList<>();
-        Position current = goal;
+    private void requestAlternativePath(Player player) {
+        alternativeGoals.clear();
+
+        NavigationGrid grid = levels.getNavigationGrid();
+        int startX = (int) (x / TILE_SCREEN_SIZE), startY = (int) (y / TILE_SCREEN_SIZE);
+        if (!grid.isInBounds(startX, startY)) {
+            path.clear();
+            return;
+        }
+        int start = grid.toIndex(startX, startY);
+        // the enemy may stand partly on a wall (then its tile has no region), and only then we can't reject any tile
+        int startRegion = levels.getRegionId(startX, startY);
+
+        boolean reachedAlternative = false;
+        for (int offsetX = -1; offsetX <= 1 && !reachedAlternative; offsetX++){
+            for (int offsetY = -1; offsetY <= 1; offsetY++){
+                if (offsetX == 0 && offsetY == 0) continue; // Skip the current tile
+                float altX = player.getX() + offsetX * TILE_SCREEN_SIZE;
+                float altY = player.getY() + offsetY * TILE_SCREEN_SIZE;
+                if ((altX - x) * (altX - x) + (altY - y) * (altY - y) < TILE_SCREEN_SIZE * TILE_SCREEN_SIZE * 2){
+                    reachedAlternative = true;
+                    break;
+                }
 
-        while (!current.equals(start)) {
-            path.add(current);
-            current = cameFrom.get(current);
+                int goalX = (int) (altX / TILE_SCREEN_SIZE), goalY = (int) (altY / TILE_SCREEN_SIZE);
+                if (!grid.isInBounds(goalX, goalY)) continue; // the tile is not even on the map
+                if (startRegion != NavigationGrid.NO_REGION && levels.getRegionId(goalX, goalY) != startRegion)
+                    continue; // the tile is in another region (or a wall), so no search could reach it
+                int goal = grid.toIndex(goalX, goalY);
+                if (goal != start) // the enemy is already there, a path without a step doesn't help
+                    alternativeGoals.add(goal);
+            }
         }
 
-        path.add(start);
-        Collections.reverse(path);
-        return path;
+        if (alternativeGoals.isEmpty()) {
+            path.clear(); // no alternative path is needed (or possible) anymore
+            return;
+        }
+        // the enemies that are close to the player and have no path to follow replan first
+        boolean isFar = (player.getX() - x) * (player.getX() - x) + (player.getY() - y) * (player.getY() - y) > detectionRadius * detectionRadius / 4;
+        int indexOnPath = path.indexOf(start);
+        boolean hasPath = indexOnPath != -1 && indexOnPath != path.size - 1;
+        int priority = (isFar ? 1 : 0) + (hasPath ? 1 : 0);
+        levels.getPathScheduler().submit(pathRequest, start, alternativeGoals, priority);
     }
 
+    /**
+     * Checks if the player is detected: FIRST, within the radius and in sight (see {@link ChasingEnemy#canSee(Player)}),
+     * which is a single ray over the walls.
+     * SECOND, only if the level asks for it with {@code detectionPathCheck=true},
+     * the walking distance to the player (from the level's {@link FlowField}) must be within the radius as well.
+     *
+     * @param player the {@link Player} whose position is to be checked
+     * @param radius the detection radius in pixels
+     * @return {@code true} if the player is detected; {@code false} otherwise
+     */
     @Override
     protected boolean isPlayerWithinDetectionRadius(Player player, float radius) {
         if (player == null) return false;
-        int detectionDistance = (int) radius / TILE_SCREEN_SIZE; // in tiles
-
-        Position start = getTilePosition(x, y);
-        Position goal = getTilePosition(player.getX(), player.getY());
-
-        Queue<Position> queue = new LinkedList<>();
-        Set<Position> visited = new HashSet<>();
-        Map<Position, Integer> distances = new HashMap<>();
-
-        queue.add(start);
-        visited.add(start);
-        distances.put(start, 0);
+        if (!super.isPlayerWithinDetectionRadius(player, radius)) return false;
+        if (!checksPathDistance) return true;
 
-        while (!queue.isEmpty()) {
-            Position current = queue.poll();
-            int currentDistance = distances.get(current);
-            if (current.equals(goal)) {
-                return currentDistance <= detectionDistance; // Check if the player is within 10 tiles
-            }
+        int detectionDistance = (int) radius / TILE_SCREEN_SIZE; // in tiles
 
-            for (Position neighbor : getNeighbors(current)) {
-                if (!visited.contains(neighbor)) {
-                    queue.add(neighbor);
-                    visited.add(neighbor);
-                    distances.put(neighbor, currentDistance + 1);
-                }
-            }
+        // The flow field already knows the walking distance from every tile to the player
+        int distance = levels.getFlowField().getDistance((int) (x / TILE_SCREEN_SIZE), (int) (y / TILE_SCREEN_SIZE));
+        if (distance != FlowField.UNREACHABLE) {
+            return distance <= detectionDistance; // Check if the player is within 10 tiles
         }
 
         // The Player is out of range (somewhere in the wall, or on the tile that has parts of walls on it
         // or surrounded by walls
         Position playerPosition = getTilePosition(player.getX(), player.getY());
         if (levels.getTileEnumOnMap(playerPosition.getTileX(), playerPosition.getTileY()).equals(TileType.WALL)) {
-            //return super.isPlayerWithinDetectionRadius(player, radius);
-            // then, we do normal detection
-            // actually, manhattan distance
-            float dx = player.getX() - x;
-            float dy = player.getY() - y;
-            return dx + dy <= radius;
+            // then, the normal detection (radius and line of sight) that has already passed is enough
+            return true;
         }
         else{
             // surrounded by walls, let's just give up
@@ -11,6 +11,7 @@
 import de.tum.cit.fop.maze.base.Character;
 import de.tum.cit.fop.maze.base.GameObject;
 import de.tum.cit.fop.maze.level.LevelManager;
+import de.tum.cit.fop.maze.util.LineOfSight;
 
 import java.util.Arrays;
 import java.util.Random;
@@ -25,6 +26,8 @@ public class ChasingEnemy extends Character {
     protected final TiledMapTileLayer collisionLayer;
     protected float targetX, targetY;
     protected float detectionRadius;
+    // the cosine of half the angle of the vision cone, -1 if the enemy sees in every direction
+    protected final float cosHalfVisionCone;
     protected boolean isChasing;
     protected final TextureRegion enemyTexture;
     protected final TextureRegion alertSymbolTexture;
@@ -50,6 +53,9 @@ public class ChasingEnemy extends Character {
 
     protected final int enemyIndex;
 
+    // the traps near this enemy, reused for every query of the level's spatial hash
+    protected final Array<Trap> nearbyTraps = new Array<>(false, 8);
+
     protected float speakingElapsedTime; // Tracks time for the speech bubble's state
     protected int speechTextIndex;
     public final float SPEAKING_ACTIVE_DURATION = MathUtils.random(3f, 5f); // Duration for which the portal is active
@@ -77,6 +83,9 @@ public ChasingEnemy(TextureRegion textureRegion, int tileX, int tileY, int width
         this.targetY = 0;
         setRandomTarget();
         this.detectionRadius = 400f; // Default detection radius
+        // the angle of the vision cone in degrees, from the ".properties" file of the level, e.g., visionCone=120
+        String visionCone = levels.getProperties("visionCone");
+        this.cosHalfVisionCone = visionCone.isEmpty() ? -1 : MathUtils.cosDeg(Float.parseFloat(visionCone) / 2);
         this.isChasing = false;
         this.randomMoveCooldown = RANDOM_MOVE_TIME;
         this.enemyIndex = enemyIndex;
@@ -115,7 +124,8 @@ public void update(float delta) {
             ENEMY_BASE_SPEED = 100;
 
         // Check if the player is within the detection radius
-        if (isPlayerWithinDetectionRadius(player, detectionRadius) && damageTimes < MAX_DAMAGE_TIMES) {
+        boolean isPlayerDetected = isPlayerWithinDetectionRadius(player, detectionRadius);
+        if (isPlayerDetected && damageTimes < MAX_DAMAGE_TIMES) {
             // If the player is within the detection radius, chase the player
             if (!isChasing){ // previously, it wasn't chasing
                 alertTime = ALERT_SHOWING_TIME; // reset the time that the exclamation mark [!] need to be shown
@@ -132,7 +142,7 @@ public void update(float delta) {
 
         } else {
             // If the player is outside the detection radius, move randomly
-            if (!isPlayerWithinDetectionRadius(player, detectionRadius)) // if player isn't close enough anymore
+            if (!isPlayerDetected) // if player isn't close enough anymore
                 damageTimes = 0; // immediately reset back the times it has damaged the player
             if (isChasing){ // previously, it was chasing
                 float dx = player.getX() - x; // dx > 0 means the player is on the right side, < 0 if on the left.
@@ -181,20 +191,41 @@ private void attackPlayer(Player player) {
 
 
     /**
-     * Checks if the given player is within the detection radius of this object.
+     * Checks if the given player is within the detection radius of this object and can be seen.
      *
      * <p>The detection is based on the squared Euclidean distance between the player's
      * position and this object's position, compared to the square of the detection radius.
+     * Only then, it is checked with {@link #canSee(Player)} that no wall is in between.
      *
      * @param player the {@link Player} whose position is to be checked
-     * @return {@code true} if the player is within the detection radius; {@code false} otherwise
+     * @return {@code true} if the player is within the detection radius and in sight; {@code false} otherwise
      */
     protected boolean isPlayerWithinDetectionRadius(Player player, float radius) {
 // radius is in pixels
         float dx = player.getX() - x;
         float dy = player.getY() - y;
         float distanceSquared = dx * dx + dy * dy;
-        return distanceSquared <= radius * radius;
+        return distanceSquared <= radius * radius && canSee(player);
+    }
+
+    /**
+     * Checks if the player is in sight, with a single ray over the walls of the level's {@link LineOfSight}.
+     * If the level has a vision cone, an enemy that is not chasing yet only sees the player in front of it.
+     * Once it chases, it keeps its eyes on the player, so the cone doesn't apply anymore.
+     *
+     * @param player the {@link Player} to look at
+     * @return {@code true} if no wall is between this enemy and the player; {@code false} otherwise
+     */
+    protected boolean canSee(Player player) {
+        if (!isChasing && cosHalfVisionCone > -1) {
+            float facingX = switch (previousDirection) { case left -> -1; case right -> 1; default -> 0; };
+            float facingY = switch (previousDirection) { case down -> -1; case up -> 1; default -> 0; };
+            if (!LineOfSight.isInVisionCone(facingX, facingY, player.getX() - x, player.getY() - y, cosHalfVisionCone))
+                return false;
+        }
+
+        LineOfSight lineOfSight = levels.getLineOfSight();
+        return lineOfSight == null || lineOfSight.hasLineOfSight(x, y, player.getX(), player.getY());
     }
 
 
@@ -270,26 +301,19 @@ protected void moveTowardsTarget(float delta) {
         velX = (float) (Math.tanh(dirX)) * ENEMY_BASE_SPEED; // tanh is between 1~-1 and preserves the sign. it looks like something like this: ___/‾‾‾
         velY = (float) (Math.tanh(dirY)) * ENEMY_BASE_SPEED;
 
-        // Predict new position
-        float newX = x + velX * delta * 2;
-        float newY = y + velY * delta * 2;
-
-        // Check if the enemy can move to the new position (collision detection)
-        if (canMoveTo(newX, y)) {
-            x = x + velX * delta; // Move horizontally if no collision
-        }
-        else
+        // Don't move while touching a trap or another enemy, but look for another target
+        if (isTouchingTraps() || isTouchingOtherEnemies()) {
             setRandomTarget();
-
-        if (canMoveTo(x, newY)) {
-            y = y + velY * delta; // Move vertically if no collision
         }
-        else
+        // Move, and slide along the walls that are in the way (collision detection)
+        else if (moveAndSlide(velX * delta, velY * delta)) {
             setRandomTarget();
+        }
 
         // Constrain enemy position within the game world boundaries
         x = MathUtils.clamp(x, getHitboxWidthOnScreen() / 2, getWorldWidth() - getHitboxWidthOnScreen() / 2);
         y = MathUtils.clamp(y, getHitboxHeightOnScreen() / 2, getWorldHeight() - getHitboxHeightOnScreen() / 2);
+        levels.getEnemyHash().update(this);
 
         setDirection();
     }
@@ -320,19 +344,6 @@ public void setDirection(){
         previousVelY = velY;
     }
 
-    /**
-     * Determines if the player can move to the specified position on the game world. (to prevent going through walls when moving)
-     * Overriding the "super" 's method to check also for the traps
-     */
-    @Override
-    protected boolean canMoveTo(float x, float y){
-        if (isTouchingTraps()) return false;
-
-        if (isTouchingOtherEnemies()) return false;
-
-        return super.canMoveTo(x,y);
-    }
-
     /**
      * Checks and handles collisions between this object and traps or enemies in the game world. <br>
      * Handles reaction to collisions by stepping back
@@ -341,11 +352,11 @@ protected boolean canMoveTo(float x, float y){
      */
     //for traps and enemies
     private void checkCollisions(float delta) {
-        // Access traps and enemies through GameManager
-        Array<Trap> traps = levels.traps;
+        // Only the traps and enemies whose hitboxes overlap this enemy's hitbox can touch it
+        levels.getTrapHash().queryAabb(getHitbox(), nearbyTraps);
 
         // Check for collision with traps
-        for (Trap trap : iterate(traps)) {
+        for (Trap trap : iterate(nearbyTraps)) {
             if (trap.isTouching(this)) {
                 Gdx.app.log("ChasingEnemy", "A chasing enemy has hit a trap :O00");
                 // step back to original
@@ -354,11 +365,9 @@ private void checkCollisions(float delta) {
         }
 
 
-        // Check for collision with enemies
-        for (ChasingEnemy enemy : iterate(levels.chasingEnemies)) {
-            if (!enemy.equals(this) && enemy.isTouching(this)) {
-                stepBackABit(delta, enemy);
-            }
+        // Check for collision with enemies, which have been found for all the enemies at once at the start of the frame
+        for (ChasingEnemy enemy : iterate(levels.getEnemyContacts().getContacts(this))) {
+            stepBackABit(delta, enemy);
         }
     }
 
@@ -378,22 +387,23 @@ private void checkCollisions(float delta) {
     private void stepBackABit(float delta, GameObject other) {
         float dx = ((other.getX() - x) > 0) ? -1 * abs(velX) * delta : 1 * abs(velX) * delta; // if trap is on the right then
         float dy = ((other.getY() - y) > 0) ? -1 * abs(velY) * delta : 1 * abs(velY) * delta;
-        if (super.canMoveTo(x + dx, y + dy)){ // only detect touching walls, so step back to where there are no walls
+        if (canMoveTo(x + dx, y + dy)){ // only detect touching walls, so step back to where there are no walls
             x += dx;
             y += dy;
+            levels.getEnemyHash().update(this);
         }
         setRandomTarget();
     }
     /**
      * Checks if this object is currently touching any traps in the game world.
      *
-     * <p>The method iterates through all traps in the game and determines if
-     * a collision exists between this object and any trap using the {@code isTouching} method.
+     * <p>The method asks the level's spatial hash for the traps near this object and determines if
+     * a collision exists between this object and any of them using the {@code isTouching} method.
      *
      * @return {@code true} if this object is touching at least one trap; {@code false} otherwise
      */
     private boolean isTouchingTraps() {
-        for (Trap trap : iterate(levels.traps)) {
+        for (Trap trap : iterate(levels.getTrapHash().queryAabb(getHitbox(), nearbyTraps))) {
             if (trap.isTouching(this)) {
                 return true;
             }
@@ -403,9 +413,8 @@ private boolean isTouchingTraps() {
 
     /**
      * Checks if the current enemy is touching any other enemy in the game.
-     * It iterates over all the chasing enemies and checks if the current enemy
-     * is in contact with another enemy, excluding itself. If a collision is detected,
-     * the method logs the event and returns `true`. If no collisions are found, it returns `false`.
+     * The touching pairs of all the enemies are found once per frame by the level's {@link de.tum.cit.fop.maze.level.SortAndSweep},
+     * so this only checks if the current enemy has a contact at the start of this frame.
      *
      * This method is used to determine if the enemy is in close proximity or overlapping
      * with any other chasing enemies, which may affect the game's behavior (e.g., movement, interactions).
@@ -413,13 +422,7 @@ private boolean isTouchingTraps() {
      * @return True if the current enemy is touching another enemy, otherwise false.
      */
     protected boolean isTouchingOtherEnemies(){
-        for (ChasingEnemy enemy : iterate(levels.chasingEnemies)) {
-            if (!enemy.equals(this) && enemy.isTouching(this)) {
-                Gdx.app.log("Enemy", "Touching other enemies...");
-                return true;
-            }
-        }
-        return false;
+        return !levels.getEnemyContacts().getContacts(this).isEmpty();
     }
 
     /**
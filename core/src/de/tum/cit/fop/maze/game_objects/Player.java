@@ -48,6 +48,12 @@ public class Player extends Character {
 
     private static final float SPEED_THRESHOLD = 5; // a number to determine if the player has stopped moving or not. if lower than this number, it is considered that the player has stopped moving.
 
+    // the game objects near the player, reused for every query of the level's spatial hashes
+    private final Array<Trap> nearbyTraps = new Array<>(false, 8);
+    private final Array<ChasingEnemy> nearbyEnemies = new Array<>(false, 8);
+    private final Array<Collectibles> nearbyCollectibles = new Array<>(false, 8);
+    private final Array<Portal> nearbyPortals = new Array<>(false, 4);
+
     /**
      * Constructor for Player. This is our main character <br>
      *
@@ -178,18 +184,8 @@ private void handleMovement() {
         }
 
 
-        // predict new positions for collision checking
-        float newXTest = x + velX * delta;
-        float newYTest = y + velY * delta;
-
-        // Checks if the player can move to a given position by verifying collisions at the four corners of the player's hitbox.
-        boolean canMoveHorizontally = canMoveTo(newXTest, y);
-        boolean canMoveVertically = canMoveTo(x, newYTest);
-
         handleCheatCode();
         if (isGodMode){
-            canMoveHorizontally = true;
-            canMoveVertically = true;
             targetVelX *= 5;
             targetVelY *= 5;
         }
@@ -207,8 +203,8 @@ private void handleMovement() {
         // both hor. and ver. are pressed -> move diagonally
         // Adjust speed for diagonal movement (moving diagonally should divide the speed by sqrt(2))
         if (horizontalInput != 0 && verticalInput != 0) {
-            if (canMoveVertically) targetVelX /= 1.414f; // but not touching horizontal walls
-            if (canMoveHorizontally) targetVelY /= 1.414f; // but not touching vertical walls
+            if (!isBlockedVertically) targetVelX /= 1.414f; // but not touching horizontal walls (during the last move)
+            if (!isBlockedHorizontally) targetVelY /= 1.414f; // but not touching vertical walls
         }
 
         // gradually adjust the actual velocities towards the target velocities for smooth movement
@@ -219,27 +215,22 @@ private void handleMovement() {
         if (abs(velX) < SPEED_THRESHOLD) lastHorizontalDirection = 0;
         if (abs(velY) < SPEED_THRESHOLD) lastVerticalDirection = 0;
 
-        // update the player's coordinates
-        float newX = x + velX * delta; // `lastHorizontalDirection` is the previous direction (could be zero and hence no movement)
-        float newY = y + velY * delta;
-        speed = (float) Math.sqrt(velX * velX * (canMoveHorizontally ? 1 : 0) // pythagoras theorem
-                                + velY * velY * (canMoveVertically ? 1 : 0)); // hor/ver component of the vel is 0 if canMove on that axis is false
-
-        // horizontally
-        if (canMoveHorizontally) {
-            x = newX; // update position if no collision
+        // update the player's coordinates, sliding along the walls that are in the way (or through them in god mode)
+        if (isGodMode) {
+            x += velX * delta;
+            y += velY * delta;
+            isBlockedHorizontally = false;
+            isBlockedVertically = false;
         }
-        else{
-            targetVelX *= 0.5f; // reduce velocity when collides
+        else {
+            moveAndSlide(velX * delta, velY * delta);
         }
+        speed = (float) Math.sqrt(velX * velX * (isBlockedHorizontally ? 0 : 1) // pythagoras theorem
+                                + velY * velY * (isBlockedVertically ? 0 : 1)); // hor/ver component of the vel is 0 if that axis is blocked by a wall
 
-        // vertically
-        if (canMoveVertically) {
-            y = newY;
-        }
-        else{
-            targetVelY *= 0.5f;
-        }
+        // reduce velocity when collides
+        if (isBlockedHorizontally) targetVelX *= 0.5f;
+        if (isBlockedVertically) targetVelY *= 0.5f;
 
         // Constrain Player to World Boundaries
         x = MathUtils.clamp(x, getHitboxWidthOnScreen() / 2, getWorldWidth() - getHitboxWidthOnScreen() / 2);
@@ -251,20 +242,17 @@ private void handleMovement() {
     }
 
     /**
-     * Determines if the player can move to the specified position on the game world. (to prevent going through walls when moving)
+     * Makes some adjustment for a slightly angled camera view by moving the box that collides with the walls
+     * to the center of the player's lower hitbox.
      * Overriding the "super" 's method
-     * to make some adjustment for a slightly angled camera view by modifying the y-coordinate to align
-     * with the center of the player's lower hitbox.
      *
-     * @param x the x-coordinate to check for movement
-     * @param y the y-coordinate to check for movement
-     * @return {@code true} if the player can move to the specified position; {@code false} otherwise
+     * @return the offset of the wall box in world pixels
      */
     @Override
-    protected boolean canMoveTo(float x, float y){
+    protected float getWallBoxOffsetY() {
         if (levels.isCameraAngled()) // not completely top-down 90° view; instead, it's with a slightly angled view
-            y -= getHitboxHeightOnScreen()/2; // hitboxHeight is updated, this is the center of the lower-half of the current hitbox
-        return super.canMoveTo(x,y);
+            return -getHitboxHeightOnScreen()/2; // hitboxHeight is updated, this is the center of the lower-half of the current hitbox
+        return 0;
     }
 
     /**
@@ -305,11 +293,11 @@ private boolean isPointWithinWholeTileOf(float x, float y, float offsetX, float
      */
     //for traps and enemies
     private void checkCollisions() {
-        // Access traps and enemies through GameManager
-        Array<Trap> traps = levels.traps;
+        // Only the traps and enemies whose hitboxes overlap the player's hitbox can touch the player
+        levels.getTrapHash().queryAabb(getHitbox(), nearbyTraps);
 
         // Check for collision with traps
-        for (Trap trap : iterate(traps)) {
+        for (Trap trap : iterate(nearbyTraps)) {
             if (trap.isTouching(this)) {
                 if (!isHurt){
                     loseLives(trap.getDamage(), trap);
@@ -325,7 +313,8 @@ private void checkCollisions() {
         }
 
         // Check for collision with enemies
-        for (ChasingEnemy enemy : iterate(levels.chasingEnemies)) {
+        levels.getEnemyHash().queryAabb(getHitbox(), nearbyEnemies);
+        for (ChasingEnemy enemy : iterate(nearbyEnemies)) {
             if (enemy.isTouching(this) && !isHurt) {
                 bounceBack(enemy);
             }
@@ -333,12 +322,10 @@ private void checkCollisions() {
     }
 
     /**
-     * Checks if the player is colliding with any portals and handles teleportation accordingly.
-     *
-     * @param portals An array of {@link Portal} objects to check for collisions.
+     * Checks if the player is colliding with any portals of the level and handles teleportation accordingly.
      */
-    public void checkPortalCollisions(Array<Portal> portals) {
-        for (Portal portal : iterate(portals)) {
+    public void checkPortalCollisions() {
+        for (Portal portal : iterate(levels.getPortalHash().queryAabb(getHitbox(), nearbyPortals))) {
             if (isTouching(portal)) {
                 Gdx.app.log("Player", "Collision detected with portal!");
 
@@ -470,14 +457,8 @@ public boolean isCloseTo(GameObject object, float radius){
      * @return The first {@link Trap} found within the given radius, or {@code null} if none are close.
      */
     public Trap isCloseToTraps(float radius){
-        for (Trap trap : iterate(levels.traps)){
-            float dx = (trap.getX() - x);
-            float dy = (trap.getY() - y);
-            if( dx * dx + dy * dy <= radius * radius){
-                return trap;
-            }
-        }
-        return null;
+        levels.getTrapHash().queryRadius(x, y, radius, nearbyTraps);
+        return nearbyTraps.isEmpty() ? null : nearbyTraps.first();
     }
 
     /**
@@ -488,14 +469,8 @@ public Trap isCloseToTraps(float radius){
      * @return The first {@link ChasingEnemy} found within the given radius, or {@code null} if none are close.
      */
     public ChasingEnemy isCloseToEnemies(float radius){
-        for (ChasingEnemy enemy : iterate(levels.chasingEnemies)){
-            float dx = (enemy.getX() - x);
-            float dy = (enemy.getY() - y);
-            if (dx * dx + dy * dy <= radius * radius){
-                return enemy;
-            }
-        }
-        return null;
+        levels.getEnemyHash().queryRadius(x, y, radius, nearbyEnemies);
+        return nearbyEnemies.isEmpty() ? null : nearbyEnemies.first();
     }
 
     /**
@@ -506,14 +481,8 @@ public ChasingEnemy isCloseToEnemies(float radius){
      * @return The first {@link Collectibles} found within the given radius, or {@code null} if none are close.
      */
     public Collectibles isCloseToCollectibles(float radius){
-        for (Collectibles collectible : iterate(gameScreen.getCollectibles())){
-            float dx = (collectible.getX() - x);
-            float dy = (collectible.getY() - y);
-            if (dx * dx + dy * dy <= radius * radius){
-                return collectible;
-            }
-        }
-        return null;
+        levels.getCollectibleHash().queryRadius(x, y, radius, nearbyCollectibles);
+        return nearbyCollectibles.isEmpty() ? null : nearbyCollectibles.first();
     }
 
     /**
@@ -524,10 +493,8 @@ public Collectibles isCloseToCollectibles(float radius){
      * @return The first {@link Portal} found within the given radius and is active, or {@code null} if none are close.
      */
     public Portal isCloseToPortals(float radius){
-        for (Portal portal : iterate(gameScreen.getPortals())){
-            float dx = (portal.getX() - x);
-            float dy = (portal.getY() - y);
-            if (portal.isActive() && dx * dx + dy * dy <= radius * radius){
+        for (Portal portal : iterate(levels.getPortalHash().queryRadius(x, y, radius, nearbyPortals))){
+            if (portal.isActive()){
                 return portal;
             }
         }
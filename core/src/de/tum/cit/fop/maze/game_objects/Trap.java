@@ -1,21 +1,19 @@
 package de.tum.cit.fop.maze.game_objects;
 
-import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import de.tum.cit.fop.maze.base.GameObject;
-import de.tum.cit.fop.maze.tiles.Tile;
+import de.tum.cit.fop.maze.tiles.HitMask;
+import de.tum.cit.fop.maze.tiles.HitMaskSheet;
 
 import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
-import static de.tum.cit.fop.maze.tiles.Tile.createHitPixmap;
-import static de.tum.cit.fop.maze.tiles.Tile.getPixmap;
 
 public class Trap extends GameObject {
     private final float damage;
     private final TextureRegion trapTexture;
 
-    private boolean[][] hitPixmap; // stores the precomputed alpha map
+    private final HitMask hitMask; // the precomputed alpha map, shared by all the traps with the same texture region
 
     /**
      * Constructs a Trap object with the specified parameters.
@@ -33,10 +31,32 @@ public class Trap extends GameObject {
      */
     public Trap(TextureRegion textureRegion, float x, float y, int width, int height, int hitboxWidth, int hitboxHeight,
                 float widthOnScreen, float heightOnScreen, float damage) {
+        this(textureRegion, HitMaskSheet.of(textureRegion.getTexture()).getSolidMask(textureRegion), x, y, width, height, hitboxWidth, hitboxHeight,
+                widthOnScreen, heightOnScreen, damage);
+    }
+
+    /**
+     * Constructs a Trap object with an alpha map that is shared with the other traps of the same texture region,
+     * see {@link de.tum.cit.fop.maze.tiles.HitMaskRegistry}.
+     *
+     * @param textureRegion the texture region representing the appearance of the trap.
+     * @param hitMask the alpha map of the texture region.
+     * @param x the x-coordinate of the trap.
+     * @param y the y-coordinate of the trap.
+     * @param width the width of the trap in world units.
+     * @param height the height of the trap in world units.
+     * @param hitboxWidth the width of the trap's hitbox in world units.
+     * @param hitboxHeight the height of the trap's hitbox in world units.
+     * @param widthOnScreen the width of the trap when rendered on the screen.
+     * @param heightOnScreen the height of the trap when rendered on the screen.
+     * @param damage the amount of damage this trap inflicts on a player.
+     */
+    public Trap(TextureRegion textureRegion, HitMask hitMask, float x, float y, int width, int height, int hitboxWidth, int hitboxHeight,
+                float widthOnScreen, float heightOnScreen, float damage) {
         super(x, y, width, height, hitboxWidth, hitboxHeight, widthOnScreen, heightOnScreen);
         this.damage = damage; // Optional multiplier
         this.trapTexture = textureRegion; // new TextureRegion(new Texture(Gdx.files.internal("objects.png")),1,165,31,26); // Path to the trap image texture
-        setHitPixmap();
+        this.hitMask = hitMask;
     }
 
     /**
@@ -52,21 +72,6 @@ public float getDamage() {
         return damage;
     }
 
-    /**
-     * Sets the hit detection pixmap for the trap.
-     * This method retrieves the texture region of the trap,
-     * creates a pixmap from it, and then processes the pixmap
-     * to generate a hit detection mask.
-     */
-    private void setHitPixmap() {
-        Pixmap pixmap = getTilePixmap(this.getTextureRegion());
-        hitPixmap = createHitPixmap(this.getTextureRegion(), pixmap);
-    }
-
-    private Pixmap getTilePixmap(TextureRegion tileRegion) {
-        return getPixmap(tileRegion);
-    }
-
     /**
      * Determines if this object is touching another GameObject using pixel-perfect collision detection.
      *
@@ -104,19 +109,22 @@ public boolean isTouching(GameObject object) {
         int endX = Math.min((int) (thisHitbox.x + thisHitbox.width), (int) (otherHitbox.x + otherHitbox.width));
         int endY = Math.min((int) (thisHitbox.y + thisHitbox.height), (int) (otherHitbox.y/* - 12*/ + otherHitbox.height));
 
-        // Iterate through each pixel in the overlapping region
-        for (int x = startX; x < endX; x++) {
-            for (int y = startY; y < endY; y++) {
-                // Convert world coordinates to local coordinates of "this" (the trap)
-                int localXThis = (int) ((x - thisHitbox.x) / scale);
-                int localYThis = height - (int) ((y - thisHitbox.y) / scale) - 1; // reverse the y position
-
-                // Check the alpha map for "this" (the trap)
-                if (this.hitPixmap[localXThis][localYThis]) {
-                    // printHitPixmap();
-                    return true; // Collision detected because the non-transparent pixel of "this" overlaps with "object"'s hitbox
-                }
-            }
+        if (startX >= endX || startY >= endY) {
+            return false; // the overlap doesn't contain a whole world pixel
+        }
+
+        // Convert the first and the last world pixel of the overlap to local coordinates of "this" (the trap).
+        // Since a pixel of the image is larger than a world pixel, the world pixels in between
+        // cover exactly the image pixels in between, so the alpha map only has to be checked for one rectangle
+        int minLocalX = (int) ((startX - thisHitbox.x) / scale);
+        int maxLocalX = (int) ((endX - 1 - thisHitbox.x) / scale);
+        int minLocalY = height - (int) ((endY - 1 - thisHitbox.y) / scale) - 1; // reverse the y position
+        int maxLocalY = height - (int) ((startY - thisHitbox.y) / scale) - 1;
+
+        // Check the alpha map for "this" (the trap); true if a non-transparent pixel of "this" overlaps with "object"'s hitbox
+        if (this.hitMask.isAnySolid(minLocalX, minLocalY, maxLocalX, maxLocalY)) {
+            // printHitPixmap();
+            return true;
         }
 
         // No collision detected
@@ -0,0 +1,177 @@
+package de.tum.cit.fop.maze.level;
+
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
+
+/**
+ * A flow field (or "Dijkstra map") rooted at the player's tile. <br>
+ * Instead of every {@link de.tum.cit.fop.maze.game_objects.BFSChasingEnemy} running its own BFS every frame,
+ * the {@link LevelManager} owns one flow field that runs a single BFS from the player's tile,
+ * and only when the player has moved onto another tile.
+ * <p>
+ * For every tile, it stores the walking distance (in tiles) to the player
+ * and the direction of the next step that brings an enemy one tile closer to the player,
+ * so that both the path step and the detection distance are O(1) lookups for the enemies.
+ */
+public class FlowField {
+    /** the distance of a tile from which the player cannot be reached */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /** the next step of a tile that has no next step (the player's tile itself or an unreachable tile) */
+    public static final byte NO_STEP = -1;
+
+    // right, left, up, down; the index of a direction is what we store in `nextStep`
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final NavigationGrid grid;
+
+    private final int[] distances; // distance (in tiles) to the player for each tile, indexed by the packed tile index
+    private final byte[] nextStep; // index of the direction towards the neighbour that is one tile closer to the player
+    private final int[] queue; // BFS queue of packed tile indices, reused for every update
+
+    private int rootX = -1, rootY = -1; // the tile the field is currently rooted at (the player's tile)
+
+    /**
+     * Constructs a flow field for the given walkability grid.
+     * All arrays are allocated once here and reused for every update.
+     *
+     * @param grid The {@link NavigationGrid} that tells which tiles are walkable.
+     */
+    public FlowField(NavigationGrid grid) {
+        this.grid = grid;
+        this.distances = new int[grid.size()];
+        this.nextStep = new byte[grid.size()];
+        this.queue = new int[grid.size()];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(nextStep, NO_STEP);
+    }
+
+    /**
+     * Re-roots the flow field at the tile of the given world position.
+     * The BFS is only run again if that tile is different from the one of the last update,
+     * so it is cheap to call this every frame.
+     *
+     * @param worldX The world x-coordinate of the player in pixels.
+     * @param worldY The world y-coordinate of the player in pixels.
+     * @return {@code true} if the field has been recomputed, {@code false} if it was still up-to-date.
+     */
+    public boolean update(float worldX, float worldY) {
+        int tileX = (int) (worldX / TILE_SCREEN_SIZE);
+        int tileY = (int) (worldY / TILE_SCREEN_SIZE);
+        if (tileX == rootX && tileY == rootY) return false; // the player is still on the same tile
+
+        rootX = tileX;
+        rootY = tileY;
+        recompute();
+        return true;
+    }
+
+    /**
+     * Forces the next {@link #update(float, float)} to run the BFS again,
+     * e.g., after the walkability of some tiles has changed.
+     */
+    public void invalidate() {
+        rootX = -1;
+        rootY = -1;
+    }
+
+    /**
+     * Runs one BFS from the root tile over all walkable tiles,
+     * filling in the distance and the next step of every reached tile.
+     * If the root tile itself is not walkable (e.g., the player stands partly on a wall), no tile is reached,
+     * which is the same result that a BFS from an enemy towards that tile would give.
+     */
+    private void recompute() {
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(nextStep, NO_STEP);
+        if (!grid.isWalkable(rootX, rootY))
+            return;
+
+        int head = 0, tail = 0;
+        int root = grid.toIndex(rootX, rootY);
+        distances[root] = 0;
+        queue[tail++] = root;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int currentX = grid.getX(current);
+            int currentY = grid.getY(current);
+            int nextDistance = distances[current] + 1;
+
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int neighborX = currentX + DIRECTION_X[dir];
+                int neighborY = currentY + DIRECTION_Y[dir];
+                if (!grid.isWalkable(neighborX, neighborY)) continue;
+
+                int neighbor = grid.toIndex(neighborX, neighborY);
+                if (distances[neighbor] != UNREACHABLE) continue;
+
+                distances[neighbor] = nextDistance;
+                nextStep[neighbor] = (byte) (dir ^ 1); // the opposite direction, i.e., from the neighbour back to the current tile
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * Returns the walking distance from the given tile to the player's tile.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The distance in tiles, or {@link #UNREACHABLE} if the player cannot be reached from there.
+     */
+    public int getDistance(int tileX, int tileY) {
+        if (!grid.isInBounds(tileX, tileY)) return UNREACHABLE;
+        return distances[grid.toIndex(tileX, tileY)];
+    }
+
+    /**
+     * Checks if the player can be reached by walking from the given tile.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return {@code true} if there is a path from that tile to the player's tile.
+     */
+    public boolean isReachable(int tileX, int tileY) {
+        return getDistance(tileX, tileY) != UNREACHABLE;
+    }
+
+    /**
+     * Returns the direction of the next step from the given tile towards the player.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The index of the direction (0: right, 1: left, 2: up, 3: down), or {@link #NO_STEP} if there is none.
+     */
+    public byte getNextStep(int tileX, int tileY) {
+        if (!grid.isInBounds(tileX, tileY)) return NO_STEP;
+        return nextStep[grid.toIndex(tileX, tileY)];
+    }
+
+    /**
+     * Returns the x-coordinate of the tile that is one step closer to the player.
+     *
+     * @param tileX The x-coordinate of the current tile.
+     * @param tileY The y-coordinate of the current tile.
+     * @return The x-coordinate of the next tile, or {@code tileX} itself if there is no next step.
+     */
+    public int getNextTileX(int tileX, int tileY) {
+        byte dir = getNextStep(tileX, tileY);
+        return (dir == NO_STEP) ? tileX : tileX + DIRECTION_X[dir];
+    }
+
+    /**
+     * Returns the y-coordinate of the tile that is one step closer to the player.
+     *
+     * @param tileX The x-coordinate of the current tile.
+     * @param tileY The y-coordinate of the current tile.
+     * @return The y-coordinate of the next tile, or {@code tileY} itself if there is no next step.
+     */
+    public int getNextTileY(int tileX, int tileY) {
+        byte dir = getNextStep(tileX, tileY);
+        return (dir == NO_STEP) ? tileY : tileY + DIRECTION_Y[dir];
+    }
+}
@@ -0,0 +1,129 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the {@link PreparedLevel}s that have been loaded recently, so that retrying a level
+ * (after a game over, or by selecting it again) doesn't read and parse its files again. <br>
+ * Only the parts of a level that playing it doesn't change are cached: the map, the navigation grid,
+ * the decoded tile sheets and their hit masks. The tiles, traps and enemies are still created for every {@link LevelManager}.
+ * <p>
+ * The least recently used levels are evicted once the cached levels take more than a memory cap,
+ * but the most recently used one is always kept. Levels can be put into the cache from any thread
+ * (e.g., by the {@link LevelPreloader}), but the evicted levels are only disposed on the render thread,
+ * the next time that a level is taken out of the cache, so that no pixmap is disposed during an upload.
+ */
+public class LevelCache implements Disposable {
+    private final long capacityBytes;
+    private final LinkedHashMap<Integer, PreparedLevel> levels; // in access order, the least recently used first
+    private final Array<PreparedLevel> evicted; // not disposed yet
+    private long sizeBytes;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacityBytes The memory cap of the cached levels in bytes.
+     */
+    public LevelCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+        this.levels = new LinkedHashMap<>(16, 0.75f, true);
+        this.evicted = new Array<>();
+    }
+
+    /**
+     * Returns the prepared level, from the cache if it is there, or prepares it and puts it into the cache otherwise.
+     * Must be called on the render thread.
+     *
+     * @param gameLevel The level of the game.
+     * @return the prepared level, which is owned by the cache.
+     */
+    public PreparedLevel get(int gameLevel) {
+        int level = PreparedLevel.resolveLevel(gameLevel);
+        PreparedLevel preparedLevel;
+        synchronized (this) {
+            preparedLevel = levels.get(level);
+        }
+        disposeEvicted();
+        if (preparedLevel != null) {
+            Gdx.app.log("LevelCache", "Level " + level + " is cached");
+            return preparedLevel;
+        }
+
+        preparedLevel = PreparedLevel.prepare(level);
+        put(level, preparedLevel);
+        return preparedLevel;
+    }
+
+    /**
+     * Checks if a level is in the cache, without counting as a use of it.
+     *
+     * @param gameLevel The level of the game.
+     * @return {@code true} if the level is cached.
+     */
+    public synchronized boolean contains(int gameLevel) {
+        return levels.containsKey(PreparedLevel.resolveLevel(gameLevel));
+    }
+
+    /**
+     * Puts a prepared level into the cache, which owns it from now on, and evicts the least recently used levels
+     * if the cache is over its memory cap. Can be called on any thread.
+     *
+     * @param gameLevel     The level of the game.
+     * @param preparedLevel The prepared level.
+     */
+    public synchronized void put(int gameLevel, PreparedLevel preparedLevel) {
+        PreparedLevel previous = levels.put(PreparedLevel.resolveLevel(gameLevel), preparedLevel);
+        if (previous == preparedLevel) return;
+        if (previous != null) evict(previous);
+        sizeBytes += preparedLevel.getSizeInBytes();
+
+        Iterator<PreparedLevel> leastRecentlyUsed = levels.values().iterator();
+        while (sizeBytes > capacityBytes && levels.size() > 1) {
+            evict(leastRecentlyUsed.next());
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private void evict(PreparedLevel preparedLevel) {
+        sizeBytes -= preparedLevel.getSizeInBytes();
+        evicted.add(preparedLevel);
+    }
+
+    private void disposeEvicted() {
+        Array<PreparedLevel> toDispose;
+        synchronized (this) {
+            if (evicted.isEmpty()) return;
+            toDispose = new Array<>(evicted);
+            evicted.clear();
+        }
+        for (PreparedLevel preparedLevel : toDispose) {
+            Gdx.app.log("LevelCache", "Evicting " + preparedLevel.getMapFilePath());
+            preparedLevel.dispose();
+        }
+    }
+
+    /**
+     * Returns the memory that the cached levels take.
+     *
+     * @return the approximate size in bytes.
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            for (PreparedLevel preparedLevel : levels.values())
+                evicted.add(preparedLevel);
+            levels.clear();
+            sizeBytes = 0;
+        }
+        disposeEvicted();
+    }
+}
@@ -0,0 +1,45 @@
+package de.tum.cit.fop.maze.level;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles map files into {@link LevelFile}s next to them, e.g., {@code maps/level-1-map.level}
+ * for {@code maps/level-1-map.properties}. <br>
+ * It is run by the Gradle task {@code compileLevels} with the paths of the map files as arguments,
+ * but it can also be run by hand after editing a map.
+ */
+public final class LevelCompiler {
+    private LevelCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: LevelCompiler <map file>...");
+            System.exit(1);
+        }
+        for (String mapFilePath : args) {
+            Path compiledPath = Paths.get(LevelFile.getCompiledPath(mapFilePath));
+            compile(mapFilePath, compiledPath);
+            System.out.println("Compiled " + mapFilePath + " into " + compiledPath + " (" + Files.size(compiledPath) + " bytes)");
+        }
+    }
+
+    /**
+     * Parses a map file and writes it as a compiled level.
+     *
+     * @param mapFilePath  The path to the {@code .properties} or {@code .tmx} file.
+     * @param compiledPath The path to write the compiled level to.
+     * @throws IOException If the map can't be read or the compiled level can't be written.
+     */
+    public static void compile(String mapFilePath, Path compiledPath) throws IOException {
+        MapData mapData = MapData.parse(mapFilePath);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(compiledPath))) {
+            LevelFile.write(mapData, out);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.util.FilePaths;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The compiled binary format of a level, e.g., {@code maps/level-1-map.level} for {@code maps/level-1-map.properties},
+ * which is written by {@link LevelCompiler} and loaded without any text parsing. <br>
+ * It is big-endian:
+ * <ul>
+ * <li> the magic number {@code "DSQL"}, the version, the width and the height in tiles,
+ *      the number of layers and the number of properties (as {@code int}s) </li>
+ * <li> the property table: the key and the value of every property,
+ *      each as an unsigned {@code short} length followed by that many bytes of UTF-8 </li>
+ * <li> the layers: one {@code short} tile ID per cell (or {@link MapData#EMPTY}),
+ *      packed like in {@link NavigationGrid} ({@code x * height + y}) </li>
+ * <li> the walkability: one bit per cell as {@code long}s, where cell i is bit {@code i % 64} of word {@code i / 64} </li>
+ * <li> the number of regions as an {@code int} and then the region ID of every cell as an {@code int} </li>
+ * </ul>
+ * The file is memory-mapped to load it, and the layers are copied straight out of the mapping.
+ */
+public final class LevelFile {
+    public static final String EXTENSION = ".level";
+    private static final int MAGIC = 0x4453514C; // "DSQL"
+    private static final int VERSION = 2; // 2: the region IDs are ints, a large map can have more regions than a short holds
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private LevelFile() {
+    }
+
+    /**
+     * Returns the path of the compiled level of a map file, i.e., the same path with {@link #EXTENSION}.
+     *
+     * @param mapFilePath The path to the {@code .properties} or {@code .tmx} file.
+     * @return the path to the compiled level next to it.
+     */
+    public static String getCompiledPath(String mapFilePath) {
+        return FilePaths.replaceExtension(mapFilePath, EXTENSION);
+    }
+
+    /**
+     * Writes a parsed map in the compiled format, after computing its walkability and its regions.
+     *
+     * @param mapData The parsed map.
+     * @param output  The stream to write to, which is not closed.
+     * @throws IOException If the stream can't be written.
+     */
+    public static void write(MapData mapData, OutputStream output) throws IOException {
+        int width = mapData.getWidth(), height = mapData.getHeight();
+        NavigationGrid grid = mapData.withNavigation().createNavigationGrid();
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(mapData.getLayerCount());
+        out.writeInt(mapData.getProperties().size);
+
+        for (ObjectMap.Entry<String, String> property : mapData.getProperties()) {
+            writeString(out, property.key);
+            writeString(out, property.value);
+        }
+
+        for (int layer = 0; layer < mapData.getLayerCount(); layer++) {
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    out.writeShort(toShort(mapData.getTile(layer, x, y), "Tile ID"));
+                }
+            }
+        }
+
+        long[] walkable = new long[(grid.size() + 63) >>> 6];
+        for (int i = 0; i < grid.size(); i++)
+            if (grid.isWalkable(i)) walkable[i >>> 6] |= 1L << (i & 63);
+        for (long word : walkable)
+            out.writeLong(word);
+
+        out.writeInt(grid.getRegionCount());
+        for (int i = 0; i < grid.size(); i++)
+            out.writeInt(grid.getRegion(i));
+        out.flush();
+    }
+
+    /**
+     * Loads a compiled level by memory-mapping the file.
+     *
+     * @param path The path to the compiled level.
+     * @return the map, with its walkability and regions.
+     * @throws IOException         If the file can't be read.
+     * @throws GdxRuntimeException If the file is not a compiled level of this version.
+     */
+    public static MapData read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // big-endian by default
+            try {
+                return read(buffer);
+            } catch (RuntimeException e) { // e.g., a BufferUnderflowException of a truncated file
+                throw new GdxRuntimeException("Invalid level file: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a compiled level from a buffer, starting at its position.
+     *
+     * @param buffer The content of the compiled level.
+     * @return the map, with its walkability and regions.
+     * @throws GdxRuntimeException If the content is not a compiled level of this version.
+     */
+    public static MapData read(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new GdxRuntimeException("Not a level file");
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new GdxRuntimeException("Unsupported level file version: " + version);
+        int width = buffer.getInt(), height = buffer.getInt();
+        int layerCount = buffer.getInt(), propertyCount = buffer.getInt();
+        int cellCount = width * height;
+
+        ObjectMap<String, String> properties = new ObjectMap<>(propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            String key = readString(buffer);
+            properties.put(key, readString(buffer));
+        }
+
+        int[][] layers = new int[layerCount][cellCount];
+        short[] row = new short[cellCount];
+        ShortBuffer shorts = buffer.asShortBuffer();
+        for (int[] layer : layers) {
+            shorts.get(row);
+            for (int i = 0; i < cellCount; i++)
+                layer[i] = row[i];
+        }
+        buffer.position(buffer.position() + layerCount * cellCount * Short.BYTES);
+
+        boolean[] walkable = new boolean[cellCount];
+        for (int word = 0; word < (cellCount + 63) >>> 6; word++) {
+            long bits = buffer.getLong();
+            for (int i = word << 6; i < Math.min(cellCount, (word + 1) << 6); i++)
+                walkable[i] = (bits >>> (i & 63) & 1L) != 0;
+        }
+
+        int regionCount = buffer.getInt();
+        int[] regions = new int[cellCount];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(regions);
+        buffer.position(buffer.position() + cellCount * Integer.BYTES);
+
+        return new MapData(width, height, layers, properties, walkable, regions, regionCount);
+    }
+
+    private static short toShort(int value, String what) {
+        if (value != (short) value)
+            throw new GdxRuntimeException(what + " doesn't fit into a level file: " + value);
+        return (short) value;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF)
+            throw new GdxRuntimeException("Property too long for a level file: " + string.substring(0, 20) + "...");
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+}
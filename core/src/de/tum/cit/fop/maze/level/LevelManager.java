@@ -6,17 +6,25 @@
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import de.tum.cit.fop.maze.MazeRunnerGame;
 import de.tum.cit.fop.maze.game_objects.BFSChasingEnemy;
 import de.tum.cit.fop.maze.game_objects.ChasingEnemy;
+import de.tum.cit.fop.maze.game_objects.Collectibles;
+import de.tum.cit.fop.maze.game_objects.Portal;
+import de.tum.cit.fop.maze.pathfinding.PathCache;
+import de.tum.cit.fop.maze.pathfinding.PathFinderType;
+import de.tum.cit.fop.maze.pathfinding.PathRequestQueue;
+import de.tum.cit.fop.maze.pathfinding.PathScheduler;
+import de.tum.cit.fop.maze.util.CollisionBitmap;
+import de.tum.cit.fop.maze.util.LineOfSight;
+import de.tum.cit.fop.maze.util.NavigationGrid;
 import de.tum.cit.fop.maze.util.Position;
 import de.tum.cit.fop.maze.game_objects.Trap;
 import de.tum.cit.fop.maze.tiles.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.*;
 
 import static de.tum.cit.fop.maze.MazeRunnerGame.createDirectionalAnimations;
@@ -43,14 +51,29 @@ public class LevelManager {
     public Array<Exit> exits;
 
     private TextureRegion[] tileset;
-    private Tile[][] tileOnMap;
+    private Texture tileSheet, obstacleSheet; // uploaded for this level only, so they are disposed with it
+    private MapChunks mapChunks; // the tiles on the map, created chunk by chunk around the camera
+    private IntMap<Tile> pinnedTiles; // the entrance and the exits, which are referenced even when their chunks are evicted
+    private int groundSeed; // the variants of the ground tiles are chosen from it, so a chunk looks the same when it is created again
     ObjectMap<String, String> mapProperties;
 
     int maxTilesOnCell;
 
-    private static final Set<Integer> SPEED_BOOST = TileType.SPEED_BOOST.getAll();
-    public static final Set<Integer> EXIT = TileType.EXIT.getAll();
     private TileType[][] tileEnumOnMap;
+    private NavigationGrid navigationGrid; // packed walkability of every tile for the pathfinding
+    private LineOfSight lineOfSight; // packed walls of the map for the detection of the player
+    private CollisionBitmap collisionBitmap; // packed solid pixels of the walls for the collision probes
+    private HitMaskRegistry hitMasks; // the alpha maps of the tiles and traps, one per index of the tileset
+    private PathCache pathCache; // the paths found recently, shared by the pathfinding workers
+    private PathRequestQueue pathRequestQueue; // resolves the enemies' path searches on worker threads
+    private PathScheduler pathScheduler; // spreads the enemies' path searches over the frames
+    private FlowField flowField; // shared BFS from the player's tile for all BFS enemies
+    // the game objects bucketed by their tiles, for the collision and proximity checks
+    private SpatialHash<Trap> trapHash;
+    private SpatialHash<ChasingEnemy> enemyHash;
+    private SortAndSweep<ChasingEnemy> enemyContacts; // the touching enemies, found once per frame
+    private SpatialHash<Collectibles> collectibleHash; // filled by the GameScreen, which spawns the collectibles
+    private SpatialHash<Portal> portalHash; // filled by the GameScreen, which spawns the portals
     private final MazeRunnerGame game;
 
     /**
@@ -73,40 +96,59 @@ public Entrance getEntrance() {
     }
 
     /**
-     * Loads a tiled map from the specified map and tile sheet files.
-     * Note that only this method is public, which means only this method
-     * should be accessed outside of this class when we want to load a tiled map <br><br>
+     * Loads a tiled map from a level that has already been prepared, e.g., in the background by the {@link LevelPreloader}.
+     * Only the textures of the tile sheets are uploaded here; the map, the hit masks and the navigation grid
+     * have been loaded by the {@link PreparedLevel} already. <br><br>
      * STEPS: <br>
-     * <li> First, we load the tile sheet and store it in `tileset` </li>
-     * <li> Second, we parse the .properties file and process every tile (store it in mapData) </li>
-     * <li> Third, we place the tiles on the map by creating a new instance of the tile (so that each tile can have their own position)  </li>
+     * <li> First, we upload the tile sheets and store them in `tileset` </li>
+     * <li> Second, we take over the map data (the compiled level or the parsed .properties file) </li>
+     * <li> Third, we set up the chunks that place the tiles on the map by creating a new instance of the tile (so that each tile can have their own position)  </li>
      *
-     * @param mapFilePath       Path to the map properties file.
-     * @param tileSheetPath     Path to the tile sheet image.
+     * @param preparedLevel The prepared level, which can be loaded again afterward.
      * @return The created {@link TiledMap} object.
      */
-    public TiledMap loadTiledMap(String mapFilePath, String tileSheetPath, String ObstacleSheetPath) {
+    public TiledMap loadTiledMap(PreparedLevel preparedLevel) {
         // To completely load the tiled map,
         // FIRST,
-        // Load the tile sheet
-        tileset = loadTileSheet(tileSheetPath, ObstacleSheetPath);
+        // Upload the tile sheets, whose hit masks are already loaded
+        disposeTileSheets(); // in case a map has been loaded before
+        tileSheet = preparedLevel.createTileSheetTexture();
+        obstacleSheet = preparedLevel.createObstacleSheetTexture();
+        hitMasks = preparedLevel.getHitMasks(); // already filled if the level has been loaded before
+        hitMasks.clearSheets();
+        hitMasks.putSheet(tileSheet, preparedLevel.getTileSheetMasks());
+        hitMasks.putSheet(obstacleSheet, preparedLevel.getObstacleSheetMasks());
+        tileset = loadTileSheet(tileSheet, obstacleSheet);
 
         // SECOND,
-        // Parse ".properties" file. The position of the key will also be handled here.
-        ObjectMap<String, Array<Integer>> mapData = parsePropertiesFile(mapFilePath);
+        // Take over the map data. The position of the key will also be handled here.
+        MapData mapData = preparedLevel.getMapData();
+        applyMapData(mapData);
 
         // THIRD,
-        // Put the tiles on the map. And if the tile is a trap/enemy, create a trap/enemy.
-        return createTiledMap(mapData, horizontalTilesCount, verticalTilesCount);
+        // Set up the chunks that put the tiles on the map. And if the tile is a trap/enemy, create a trap/enemy.
+        TiledMap map = createTiledMap(mapData, horizontalTilesCount, verticalTilesCount);
+
+        // FINALLY,
+        // Prepare the pathfinding with the walkability that was computed with the map data
+        navigationGrid = mapData.createNavigationGrid();
+        Gdx.app.log("LevelManager", "Walkable tiles form " + navigationGrid.getRegionCount() + " connected region(s)");
+        PathFinderType pathFinderType = PathFinderType.fromProperty(getProperties("pathFinder"));
+        pathCache = new PathCache(PATH_CACHE_CAPACITY, navigationGrid.getVersion());
+        pathRequestQueue = new PathRequestQueue(navigationGrid, pathFinderType, pathCache, PATHFINDING_WORKER_COUNT);
+        pathScheduler = new PathScheduler(pathRequestQueue, PATHFINDING_BUDGET_MICROS);
+        flowField = new FlowField(navigationGrid);
+        lineOfSight = createLineOfSight(horizontalTilesCount, verticalTilesCount);
+        collisionBitmap = createCollisionBitmap(mapData, horizontalTilesCount, verticalTilesCount);
+        createSpatialHashes(horizontalTilesCount, verticalTilesCount);
+        return map;
     }
 
 
-    /** Loads tile images and obstacle images from the specified file paths
+    /** Cuts the tile images and obstacle images out of the textures of the tile sheets
      * and organizes them into an array of Tile objects.
      */
-    private TextureRegion[] loadTileSheet(String tileSheetPath, String ObstacleSheetPath) {
-        var tileSheet = new Texture(tileSheetPath);//represents the main tile sheet image.
-        var obstacleSheet = new Texture(ObstacleSheetPath);//represents the main tile sheet image.
+    private TextureRegion[] loadTileSheet(Texture tileSheet, Texture obstacleSheet) {
         int tileCols = tileSheet.getWidth() / TILE_SIZE;
         int tileRows = tileSheet.getHeight() / TILE_SIZE;
 
@@ -121,12 +163,12 @@ private TextureRegion[] loadTileSheet(String tileSheetPath, String ObstacleSheet
                 int index = y * tileCols + x;
                 TextureRegion tileRegion;
                 // Load the TextureRegions from the sheets:
-                if (TRAP.getAll().contains(index)) {
+                if (TileRegistry.isTrap(index)) {
                     int startX = (index == TRAP.getId()) ? 0: TRAP_SIZE * (index - TRAP.getSecond() + 1);
                     tileRegion = new TextureRegion(obstacleSheet, startX, 0, TRAP_SIZE, TRAP_SIZE);
                 }
 
-                else if (ENEMY.getAll().contains(index)) {
+                else if (TileRegistry.isEnemy(index)) {
                     int startY = TRAP_SIZE + getEnemyIndex(index) * ENEMY_SIZE; //index == ENEMY_FIRST) ? 0: 16 * (index - ENEMY_SECOND + 1);
                     tileRegion = new TextureRegion(obstacleSheet, 0, startY, ENEMY_SIZE, ENEMY_SIZE);
                     int enemyIndex = getEnemyIndex(index);
@@ -144,248 +186,316 @@ else if (ENEMY.getAll().contains(index)) {
         return tileset;
     }
 
-    /** Creates a new tile based on its type (Wall, Entrance, Exit, or generic Tile),
-     * at the first time it is used, isPositionKnown is false, and we are just using it
-     * to create Tile for the tile set.
-     * <p>
-     * The second time, we create new tiles, and we place it in the `tileOnMap` array,
-     * which tells the program that we're putting it on the map
-     * we create new tiles so that we won't be accessing the same tile from the array
+    /** Creates a new tile based on its type (Wall, Entrance, Exit, or generic Tile)
+     * and sets its position on the map. <br>
+     * We create new tiles so that we won't be accessing the same tile from the array
      * if we still use the {@code Tile tile = tileset[tileValue];}; <br>
-     * All types of existing tiles should be managed here,
-     * and this method updates its position on the tileOnMap array
+     * All types of existing tiles should be managed here.
+     * The tiles are created by the {@link MapChunks} when their chunk is needed (see {@link #createChunkTile(int, int, int, int)}),
+     * except for the entrance and the exits, which are created once when the map is loaded.
      *
      * @param index the tileIndex or the tileValue on the tileset;
      * @param tileRegion the textureRegion of the tile
-     * isPositionKnown true if creating tiles for the tileset, which the positions of the tiles are indeed unknown;
-     *                        false if creating completely new instances of tiles
-     * @param x the tile X position on the map if isPositionKnown
-     * @param y the tile Y position on the map if isPositionKnown
+     * @param x the tile X position on the map
+     * @param y the tile Y position on the map
      *
      * @return a Tile object, it can either be a Wall, Entrance, Exit or a generic Tile
      */
     private Tile createTile(int index, TextureRegion tileRegion, int x, int y) {
-        if (WALL.getAll().contains(index)){
-            Tile tile = new Wall(tileRegion);
+        Tile tile;
+        if (TileRegistry.isWall(index)){
+            tile = new Wall(tileRegion);
             tile.getProperties().put("type", "Wall");
-
-                tileOnMap[x][y] = tile;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = TileType.WALL;
-
-            return tile;
         }
-
         else if (index == ENTRANCE.getId()){
-            entrance = new Entrance(tileRegion); // we create our Entrance instance here
-            entrance.getProperties().put("type", "Entrance");
-                entrance.setTilePosition(new Position(x, y, TILES));
-                tileOnMap[x][y] = entrance;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = ENTRANCE;
-
-            return entrance;
+            tile = new Entrance(tileRegion);
+            tile.getProperties().put("type", "Entrance");
         }
-        else if (EXIT.contains(index)){
-            Exit exit = new Exit(tileRegion);
-            exit.getProperties().put("type", "Exit");
-
-                exit.setTilePosition(new Position(x, y, TILES));
-                exits.add(exit);
-                tileOnMap[x][y] = exit;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = TileType.EXIT;
-
-            return exit;
+        else if (TileRegistry.isExit(index)){
+            tile = new Exit(tileRegion);
+            tile.getProperties().put("type", "Exit");
         }
-        else if (TRAP.getAll().contains(index)){
-            Tile tile = new Tile(tileRegion);
+        else if (TileRegistry.isTrap(index)){
+            tile = new Tile(tileRegion);
             tile.getProperties().put("type", "Trap");
-
-                tileOnMap[x][y] = tile;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = TileType.TRAP;
-
-            return tile;
         }
-        else if (ENEMY.getAll().contains(index)){
-            Tile tile = new Tile(tileRegion);
+        else if (TileRegistry.isEnemy(index)){
+            tile = new Tile(tileRegion);
             tile.getProperties().put("type", "Enemy");
-
-                tileOnMap[x][y] = tile;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = TileType.ENEMY;
-
-            return tile;
         }
-
-        else if (SPEED_BOOST.contains(index)){
-            Tile tile = new SpeedBoost(tileRegion);
+        else if (TileRegistry.isSpeedBoost(index)){
+            tile = new SpeedBoost(tileRegion);
             tile.getProperties().put("type", "Speed Boost");
-
-                tileOnMap[x][y] = tile;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                tileEnumOnMap[x][y] = TileType.SPEED_BOOST;
-
-            return tile;
         }
         else {
-            Tile tile = new Tile(tileRegion);
+            tile = new Tile(tileRegion);
             tile.getProperties().put("type", "");
-
-                tileOnMap[x][y] = tile;
-                tileOnMap[x][y].setTilePosition(new Position(x, y, TILES));
-                if (index < EXTRA.getId())
-                    tileEnumOnMap[x][y] = GROUND;
-                else // if index too large, it is considered to be special like a train
-                    tileEnumOnMap[x][y] = EXTRA;
-
-            return tile;
         }
+        tile.setTilePosition(new Position(x, y, TILES));
+        return tile;
     }
 
     /**
-     * Parses the properties file for the tile map.
+     * Returns the type of the tile that {@link #createTile(int, TextureRegion, int, int)} creates for a tile ID.
      *
-     * @param filePath Path to the properties file.
-     * @return An {@link ObjectMap} containing map data.
+     * @param index the tileValue on the map.
+     * @return the type of the tile.
      */
-    private ObjectMap<String, Array<Integer>> parsePropertiesFile(String filePath) {
-        ObjectMap<String, Array<Integer>> mapData = new ObjectMap<>();
-        horizontalTilesCount = 1;
-        verticalTilesCount = 1; // reset when new level starts
+    private TileType getTileType(int index) {
+        if (TileRegistry.isWall(index)) return TileType.WALL;
+        else if (index == ENTRANCE.getId()) return ENTRANCE;
+        else if (TileRegistry.isExit(index)) return TileType.EXIT;
+        else if (TileRegistry.isTrap(index)) return TileType.TRAP;
+        else if (TileRegistry.isEnemy(index)) return TileType.ENEMY;
+        else if (TileRegistry.isSpeedBoost(index)) return TileType.SPEED_BOOST;
+        else if (index < EXTRA.getId()) return GROUND;
+        else return EXTRA; // if index too large, it is considered to be special like a train
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.contains("=")) continue; // skip invalid lines
+    /**
+     * Creates the tile of a cell for the {@link MapChunks}, when the chunk of the cell is needed.
+     * The entrance and the exits are always the same instances, which have been created when the map was loaded.
+     *
+     * @param layer the layer of the cell.
+     * @param x the tile X position on the map.
+     * @param y the tile Y position on the map.
+     * @param tileValue the tileValue of the cell on that layer.
+     * @return the tile, or {@code null} if the key, a trap or an enemy is on the cell, which are not tiles.
+     */
+    private Tile createChunkTile(int layer, int x, int y, int tileValue) {
+        if (tileValue == KEY.getId() || TileRegistry.isTrap(tileValue) || TileRegistry.isEnemy(tileValue))
+            return null;
+        Tile pinnedTile = pinnedTiles.get(getCellKey(layer, x, y));
+        if (pinnedTile != null)
+            return pinnedTile;
+
+        // There would be a chance to change the ground tile
+        int tileIndex = (tileValue == GROUND.getId()) ? getGroundVariant(x, y) : tileValue;
+        if (tileIndex >= tileset.length) {
+            Gdx.app.error("LevelManager", "Tile ID " + tileIndex + " at (" + x + ", " + y + ") is not in the tileset");
+            return null;
+        }
 
-                String[] parts = line.split("="); // split into key-value, parts[0] is position (String) and parts[1] is the tileType or tileValue
-                if (parts.length != 2) continue; // ignore malformed lines
+        TextureRegion tileRegion = tileset[tileIndex]; // We get the texture through this tile
+        Tile tile = createTile(tileValue, tileRegion, x, y); // it is still tileValue instead of tileIndex here, so the functionalities will not be aff
+        // but the alpha map depends on the texture region, so it is shared by the tileIndex
+        tile.setHitMask(hitMasks.get(tileIndex, tile));
+        return tile;
+    }
 
-                String key = parts[0].trim();
-                String value = parts[1].trim();
+    /**
+     * Chooses the ground tile of a cell: a 0.5% chance each for four of our ground tile variant.
+     * It is a hash of the position instead of {@code Math.random()},
+     * so that the cell gets the same variant every time its chunk is created.
+     *
+     * @param x the tile X position on the map.
+     * @param y the tile Y position on the map.
+     * @return the tileIndex of the ground tile or of a variant (7~10).
+     */
+    private int getGroundVariant(int x, int y) {
+        int hash = (x * 0x9E3779B1) ^ (y * 0x85EBCA6B) ^ groundSeed;
+        hash ^= hash >>> 16;
+        hash *= 0x7FEB352D;
+        hash ^= hash >>> 15;
+        hash *= 0x846CA68B;
+        hash ^= hash >>> 16;
+        double random = (hash >>> 8) / (double) (1 << 24); // between 0.0 and 1.0
+        if (random <= 0.005 * 4) // 0.5% chance each for four of our ground tile variant
+            return 7 + (int) (Math.floor(random * 200)); // 1/0.5 is 200%, tileIndex can therefore be 7~10
+        return GROUND.getId();
+    }
 
-                if (key.matches("\\d+, *\\d+")){ // the key is matching the pattern of the coordinate format
-                    String[] tileTypes = value.split(","); // Handle multiple tile types (could contain the key)
+    private int getCellKey(int layer, int x, int y) {
+        return (layer * horizontalTilesCount + x) * verticalTilesCount + y;
+    }
 
-                    for (String tileType : tileTypes) {
-                        //Gdx.app.log("Parse", "Tile Parsed: " + position);
-                        putTileDataInMapData(key, tileType, mapData); // key is the positionStr
-                    }
+    /**
+     * Returns the tileValue of the tile on the most upper layer of a cell, i.e., the one that {@link #getTileOnMap(int, int)} returns.
+     *
+     * @param mapData the parsed map.
+     * @param x the tile X position on the map.
+     * @param y the tile Y position on the map.
+     * @return the tileValue, or {@link MapData#EMPTY} if there is no tile on the cell.
+     */
+    private int getTopTileValue(MapData mapData, int x, int y) {
+        for (int layerI = mapData.getLayerCount() - 1; layerI >= 0; layerI--) {
+            int tileValue = mapData.getTile(layerI, x, y);
+            if (tileValue != MapData.EMPTY && tileValue != KEY.getId()
+                    && !TileRegistry.isTrap(tileValue) && !TileRegistry.isEnemy(tileValue))
+                return tileValue;
+        }
+        return MapData.EMPTY;
+    }
 
-                    // Update the Map Size as we read the positions and find the largest value
-                    Position position = stringToPosition(key, TILES);
-                    if (horizontalTilesCount < position.getTileX() + 1) {
-                        horizontalTilesCount = position.getTileX()+1;
-                        //Gdx.app.debug("MapParser", "horizontal tiles count updated to " + horizontalTilesCount);
-                    }
-                    if (verticalTilesCount < position.getTileY() + 1) verticalTilesCount = position.getTileY() + 1;
+    /**
+     * Creates the grid of the walls for the line-of-sight checks from the tile types on the map.
+     *
+     * @param mapWidthInTiles the width of the map in tiles.
+     * @param mapHeightInTiles the height of the map in tiles.
+     * @return the {@link LineOfSight} of the map.
+     */
+    private LineOfSight createLineOfSight(int mapWidthInTiles, int mapHeightInTiles) {
+        LineOfSight sight = new LineOfSight(mapWidthInTiles, mapHeightInTiles);
+        for (int x = 0; x < mapWidthInTiles; x++) {
+            for (int y = 0; y < mapHeightInTiles; y++) {
+                sight.setOpaque(x, y, tileEnumOnMap[x][y] == TileType.WALL);
+            }
+        }
+        return sight;
+    }
+
+    /**
+     * Bakes the alpha masks of all the wall tiles (including the speed boosts) on the map into one bitmap for the collision probes.
+     * It works on the tileValues instead of the tiles, so that no chunk has to be created for it.
+     *
+     * @param mapData the parsed map.
+     * @param mapWidthInTiles the width of the map in tiles.
+     * @param mapHeightInTiles the height of the map in tiles.
+     * @return the {@link CollisionBitmap} of the map.
+     */
+    private CollisionBitmap createCollisionBitmap(MapData mapData, int mapWidthInTiles, int mapHeightInTiles) {
+        CollisionBitmap bitmap = new CollisionBitmap(mapWidthInTiles, mapHeightInTiles);
+        IntMap<HitMask> wallMasks = new IntMap<>(); // the first wall with a tileValue creates the shared mask
+        for (int x = 0; x < mapWidthInTiles; x++) {
+            for (int y = 0; y < mapHeightInTiles; y++) {
+                int tileValue = getTopTileValue(mapData, x, y);
+                if (!TileRegistry.isWall(tileValue) && !TileRegistry.isSpeedBoost(tileValue)) continue;
+                HitMask mask = wallMasks.get(tileValue);
+                if (mask == null) {
+                    mask = hitMasks.get(tileValue, createTile(tileValue, tileset[tileValue], x, y));
+                    wallMasks.put(tileValue, mask);
                 }
-                else{
-                    mapProperties.put(key, value);
+                for (int pixelX = 0; pixelX < TILE_SIZE; pixelX++) {
+                    for (int pixelY = 0; pixelY < TILE_SIZE; pixelY++) {
+                        // the alpha map is facing down, the bitmap is facing up like the world
+                        if (mask.isSolid(pixelX, TILE_SIZE - 1 - pixelY))
+                            bitmap.setSolid(x, y, pixelX, pixelY);
+                    }
                 }
             }
-
-        } catch (IOException e) {
-            Gdx.app.error("TileMapParser", String.valueOf(e));
         }
+        Gdx.app.log("LevelManager", "Collision bitmap of the walls: " + bitmap.getSizeInBytes() + " bytes");
+        return bitmap;
+    }
 
-        return mapData;
+    /**
+     * Creates the spatial hashes of the game objects and puts the traps and enemies of the map into them.
+     * The collectibles and portals are added later by the GameScreen.
+     * Also creates the list of the touching enemies, which is updated every frame.
+     *
+     * @param mapWidthInTiles the width of the map in tiles.
+     * @param mapHeightInTiles the height of the map in tiles.
+     */
+    private void createSpatialHashes(int mapWidthInTiles, int mapHeightInTiles) {
+        trapHash = new SpatialHash<>(mapWidthInTiles, mapHeightInTiles);
+        trapHash.insertAll(traps);
+        enemyHash = new SpatialHash<>(mapWidthInTiles, mapHeightInTiles);
+        enemyHash.insertAll(chasingEnemies);
+        enemyContacts = new SortAndSweep<>(chasingEnemies);
+        collectibleHash = new SpatialHash<>(mapWidthInTiles, mapHeightInTiles);
+        portalHash = new SpatialHash<>(mapWidthInTiles, mapHeightInTiles);
+    }
+
+    /**
+     * Takes over the size and the properties of the map data.
+     *
+     * @param mapData The {@link MapData} with the tiles of every layer.
+     */
+    private void applyMapData(MapData mapData) {
+        // reset when new level starts
+        horizontalTilesCount = mapData.getWidth();
+        verticalTilesCount = mapData.getHeight();
+        maxTilesOnCell = mapData.getLayerCount();
+        mapProperties.putAll(mapData.getProperties());
     }
 
     /**
-     * Put the tiles on the {@link TiledMap} based on the given map data and dimensions.
-     * And if the tile is a trap/enemy, create a trap/enemy.
+     * Sets up the {@link TiledMap} and its {@link MapChunks} based on the given map data and dimensions.
+     * And if the tile is a trap/enemy, create a trap/enemy. <br>
+     * The tiles themselves are only created chunk by chunk when they are needed, so this only goes through the tileValues:
+     * it creates the traps and enemies, finds the key, the entrance and the exits, and fills {@code tileEnumOnMap}.
      *
-     * @param mapData an object map (like the mapping or the dict, not the drawing map) containing tile data.
+     * @param mapData the parsed map containing the tiles of every layer.
      * @param mapWidthInTiles the width of the map in tiles.
      * @param mapHeightInTiles the height of the map in tiles.
      * @return the created {@link TiledMap}.
      */
-    private TiledMap createTiledMap(ObjectMap<String, Array<Integer>> mapData, int mapWidthInTiles, int mapHeightInTiles) {
+    private TiledMap createTiledMap(MapData mapData, int mapWidthInTiles, int mapHeightInTiles) {
         // Create a TiledMap
         TiledMap map = new TiledMap();
 
-        tileOnMap = new Tile[mapWidthInTiles][mapHeightInTiles]; // stores the tile in that cell that is on the most upper layer
         tileEnumOnMap = new TileType[mapWidthInTiles][mapHeightInTiles];
+        pinnedTiles = new IntMap<>();
+        groundSeed = new Random().nextInt(); // the ground variants are different every time the level is loaded
+        TiledMapTileLayer[] layers = new TiledMapTileLayer[maxTilesOnCell];
 
         // iterate every layer, since there could be two of them
         // (the first one is the ground, and the second is some additional stuff on it)
         for (int layerI = 0; layerI < maxTilesOnCell; layerI++){
 
             layer = new TiledMapTileLayer(mapWidthInTiles, mapHeightInTiles, TILE_SIZE, TILE_SIZE); // put our width/height here
+            layers[layerI] = layer;
 
-            // Populate the layer with tiles
+            // Go through the tiles of the layer, the cells are filled by the chunks later
             try{
-                for (String key : mapData.keys()) {
-                    if (mapData.get(key).size <= layerI)
-                        continue;
-                    int tileValue = mapData.get(key).get(layerI);
-                    int tileIndex = tileValue;
-                    Position position = stringToPosition(key, TILES);
-                    int x = position.getTileX();
-                    int y = position.getTileY();
-
-                    if (tileValue == KEY.getId()){
-                        keyTilePosition = new Position(x, y, TILES);
-                    }
-                    else if (TRAP.getAll().contains(tileValue)){ // a trap
-                        TextureRegion tileRegion = tileset[tileValue];
-
-                        Position trapPosition = new Position(x, y, TILES).convertTo(PIXELS);
-                        float worldX = trapPosition.getX();
-                        float worldY = trapPosition.getY();
-                        // a new instance of a trap is created here
-                        traps.add(new Trap(tileRegion, worldX, worldY,
-                                TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE,
-                                TILE_SCREEN_SIZE * 0.8f, TILE_SCREEN_SIZE * 0.8f, 1));
-                        tileEnumOnMap[x][y] = TileType.TRAP;  // fixing the problem that somehow hearts are spawning on traps, it's actually because createTile() is not called so that tileEnumOnMap isn't updated
-                    }
-
-                    else if (ENEMY.getAll().contains(tileValue)){//an enemy or a chasing enemy i myself don't know it yet
-                        TextureRegion tileRegion = tileset[tileValue];
-
-                        Position chasingEnemyPosition = new Position(x, y, TILES);
-                        int worldX = chasingEnemyPosition.getTileX();
-                        int worldY = chasingEnemyPosition.getTileY();
-                        int enemyIndex = getEnemyIndex(tileValue);
-                        String nonBFSEnemy = getProperties("nonBFSEnemyTypes");
-                        if (!nonBFSEnemy.isEmpty() && Integer.parseInt(nonBFSEnemy) == getEnemyIndex(tileValue) + 1){
-                            // create normal enemy if in the properties file, it says "non BFS"
-                            chasingEnemies.add(new ChasingEnemy(tileRegion, worldX, worldY,
-                                    TILE_SIZE, TILE_SIZE, 10, 16, 64, 64,
-                                    3, this, game, enemyIndex));
+                for (int x = 0; x < mapWidthInTiles; x++) {
+                    for (int y = 0; y < mapHeightInTiles; y++) {
+                        int tileValue = mapData.getTile(layerI, x, y);
+                        if (tileValue == MapData.EMPTY)
+                            continue;
+
+                        if (tileValue == KEY.getId()){
+                            keyTilePosition = new Position(x, y, TILES);
                         }
-                        else { // BFS enemy
-                            chasingEnemies.add(new BFSChasingEnemy(tileRegion, worldX, worldY,
-                                    TILE_SIZE, TILE_SIZE, 10, 16, 64, 64,
-                                    3, this, game, enemyIndex));
+                        else if (TileRegistry.isTrap(tileValue)){ // a trap
+                            TextureRegion tileRegion = tileset[tileValue];
+
+                            Position trapPosition = new Position(x, y, TILES).convertTo(PIXELS);
+                            float worldX = trapPosition.getX();
+                            float worldY = trapPosition.getY();
+                            // a new instance of a trap is created here
+                            traps.add(new Trap(tileRegion, hitMasks.get(tileValue, tileRegion), worldX, worldY,
+                                    TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE,
+                                    TILE_SCREEN_SIZE * 0.8f, TILE_SCREEN_SIZE * 0.8f, 1));
+                            tileEnumOnMap[x][y] = TileType.TRAP;  // fixing the problem that somehow hearts are spawning on traps
                         }
-                    }
-                    else { // if it is neither a trap nor a key, which is the default one
 
-                        // There would be a random chance to change the ground tile
-                        if (tileIndex == GROUND.getId()) {
-                            double random = Math.random(); // generates random number between 0.0 and 1.0
-                            if (random <= 0.005 * 4) { // 0.5% chance each for four of our ground tile variant
-                                tileIndex = 7 + (int) (Math.floor(random * 200)); // 1/0.5 is 200%, tileIndex can therefore be 7~10
+                        else if (TileRegistry.isEnemy(tileValue)){//an enemy or a chasing enemy i myself don't know it yet
+                            TextureRegion tileRegion = tileset[tileValue];
+
+                            Position chasingEnemyPosition = new Position(x, y, TILES);
+                            int worldX = chasingEnemyPosition.getTileX();
+                            int worldY = chasingEnemyPosition.getTileY();
+                            int enemyIndex = getEnemyIndex(tileValue);
+                            String nonBFSEnemy = getProperties("nonBFSEnemyTypes");
+                            if (!nonBFSEnemy.isEmpty() && Integer.parseInt(nonBFSEnemy) == getEnemyIndex(tileValue) + 1){
+                                // create normal enemy if in the properties file, it says "non BFS"
+                                chasingEnemies.add(new ChasingEnemy(tileRegion, worldX, worldY,
+                                        TILE_SIZE, TILE_SIZE, 10, 16, 64, 64,
+                                        3, this, game, enemyIndex));
+                            }
+                            else { // BFS enemy
+                                chasingEnemies.add(new BFSChasingEnemy(tileRegion, worldX, worldY,
+                                        TILE_SIZE, TILE_SIZE, 10, 16, 64, 64,
+                                        3, this, game, enemyIndex));
                             }
                         }
-
-                        TextureRegion tileRegion = tileset[tileIndex]; // We get the texture through this tile
-
-                        // create a new tile based on its type so that we won't be accessing the same tile from the array
-                        // also set its position on the map
-                        Tile tile = createTile(tileValue, tileRegion, x, y); // it is still tileValue instead of tileIndex here, so the functionalities will not be aff
-
-                        // deal with LibGDX own library
-                        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
-                        cell.setTile(tile);
-                        layer.setCell(x, y, cell);
-
+                        else { // if it is neither a trap nor a key, which is the default one
+                            tileEnumOnMap[x][y] = getTileType(tileValue);
+
+                            // the entrance and the exits are referenced by the game, so they are created right away
+                            if (tileValue == ENTRANCE.getId() || TileRegistry.isExit(tileValue)) {
+                                Tile tile = createTile(tileValue, tileset[tileValue], x, y);
+                                tile.setHitMask(hitMasks.get(tileValue, tile));
+                                pinnedTiles.put(getCellKey(layerI, x, y), tile);
+                                if (tile instanceof Entrance entranceTile)
+                                    entrance = entranceTile;
+                                else
+                                    exits.add((Exit) tile);
+                            }
                         }
 
+                    }
                 }
             } catch (ArrayIndexOutOfBoundsException e) {
                 Gdx.app.error("LevelManager", "Error loading tiles: ", e);
@@ -395,43 +505,12 @@ else if (ENEMY.getAll().contains(tileValue)){//an enemy or a chasing enemy i mys
 
         }
 
-        Gdx.app.log("LevelManager", "Tiled Map loaded");
-        //Gdx.app.log("LevelManager", "entrance position: " + entrance.getTilePosition());
+        mapChunks = new MapChunks(mapData, layers, this::createChunkTile, MAP_CHUNK_SIZE, MAP_CHUNK_MARGIN, MAP_CHUNK_CAPACITY);
+        Gdx.app.log("LevelManager", "Tiled Map loaded in " + mapChunks.getChunkCount() + " chunks of "
+                + MAP_CHUNK_SIZE + "x" + MAP_CHUNK_SIZE + " tiles, " + hitMasks.size() + " different alpha maps");
         return map;
     }
 
-    /**
-     * While parsing the .properties file,
-     * Processes an individual tile to update the map data.
-     *
-     * @param position   The position key of the tile. (Format: "x,y")
-     * @param tileType   The tile value or type but as a string.
-     * @param mapData    The mapData to update.
-     */
-    private void putTileDataInMapData(String position, String tileType, ObjectMap<String, Array<Integer>> mapData) {
-        try {
-            int tileValue = Integer.parseInt(tileType);
-
-            // originally it was an Integer instead of a List<Integer>,
-            // but now we can have more than one layer,
-            // so we need a list to store the tiles in this specific cell at this position
-            Array<Integer> list;
-            if (mapData.get(position) == null){ // puts an empty list to the Map if empty
-                list = new Array<>();
-                mapData.put(position, list);
-            }
-            list = mapData.get(position);
-            list.add(tileValue);
-            if (list.size > maxTilesOnCell) maxTilesOnCell = list.size; // set maxTilesOnCell to fine the maximum # of tiles that any grid has
-            mapData.put(position, list);
-            //Gdx.app.log("mapData", "Put to mapData: " + position + " " + mapData.get(position));
-
-
-        } catch (NumberFormatException e) {
-            Gdx.app.error("TileMapParser", "Invalid tile value: " + tileType + " at position " + position, e);
-        }
-    }
-
     /**
      * Converts a string representation of coordinates "x,y" into a {@link Position}.
      *
@@ -484,6 +563,7 @@ public Position getKeyTilePosition() {
      * <p>
      * Given the x and y coordinates, this method returns the tile at that position on the map.
      * The coordinates are assumed to be within the bounds of the map.
+     * If the chunk of the tile is not in use, it is created (see {@link MapChunks}).
      * </p>
      *
      * @param x The x-coordinate of the tile on the map.
@@ -491,7 +571,30 @@ public Position getKeyTilePosition() {
      * @return The tile at the specified position on the map.
      */
     public Tile getTileOnMap(int x, int y) {
-        return tileOnMap[x][y];
+        return mapChunks.getTile(x, y);
+    }
+
+    /**
+     * Creates the chunks of the map around the view of the camera, and evicts the ones that have not been used for the longest time.
+     * Should be called every frame before the map is rendered.
+     *
+     * @param viewBounds the part of the world that is in view, in world coordinates (e.g., the view bounds of the map renderer).
+     */
+    public void streamChunksAround(Rectangle viewBounds) {
+        mapChunks.streamAround(
+                (int) Math.floor(viewBounds.x / TILE_SCREEN_SIZE),
+                (int) Math.floor(viewBounds.y / TILE_SCREEN_SIZE),
+                (int) Math.floor((viewBounds.x + viewBounds.width) / TILE_SCREEN_SIZE),
+                (int) Math.floor((viewBounds.y + viewBounds.height) / TILE_SCREEN_SIZE));
+    }
+
+    /**
+     * Returns the chunks that the tiles on the map are created in.
+     *
+     * @return the {@link MapChunks} of this level.
+     */
+    public MapChunks getMapChunks() {
+        return mapChunks;
     }
 
     /**
@@ -515,6 +618,144 @@ public TileType getTileEnumOnMap(int x, int y) {
         return tileEnumOnMap[x][y];
     }
 
+    /**
+     * Checks if a tile at the specified coordinates (x, y) is walkable for the enemies.
+     * The tile is considered walkable if it is on the map and its type is not a wall or trap.
+     *
+     * @param x The X-coordinate of the tile on the map.
+     * @param y The Y-coordinate of the tile on the map.
+     * @return True if the tile is walkable (not a wall or trap), false otherwise.
+     */
+    public boolean isTileWalkable(int x, int y) {
+        if (x < 0 || y < 0 || x >= tileEnumOnMap.length || y >= tileEnumOnMap[x].length)
+            return false;
+        TileType tileType = tileEnumOnMap[x][y];
+        return tileType != TileType.WALL && tileType != TileType.TRAP;
+    }
+
+    /**
+     * Returns the ID of the connected region of walkable tiles that the given tile belongs to.
+     * The regions are labelled once when the map is loaded, with the same rule as {@link #isTileWalkable(int, int)},
+     * so two tiles with different IDs can never be connected by a path, and a search between them can be skipped.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The region ID, or {@link NavigationGrid#NO_REGION} if the tile is not on the map or not walkable.
+     */
+    public int getRegionId(int x, int y) {
+        return navigationGrid.getRegion(x, y);
+    }
+
+    /**
+     * Returns the walkability grid of the map that the pathfinding works on.
+     *
+     * @return the {@link NavigationGrid} of this level.
+     */
+    public NavigationGrid getNavigationGrid() {
+        return navigationGrid;
+    }
+
+    /**
+     * Returns the walls of the map for the line-of-sight checks of the enemies.
+     *
+     * @return the {@link LineOfSight} of this level.
+     */
+    public LineOfSight getLineOfSight() {
+        return lineOfSight;
+    }
+
+    /**
+     * Returns the solid pixels of all the walls of the level, for the collision probes of the characters.
+     *
+     * @return the {@link CollisionBitmap} of this level.
+     */
+    public CollisionBitmap getCollisionBitmap() {
+        return collisionBitmap;
+    }
+
+    /**
+     * Returns the traps of the level, bucketed by their tiles.
+     *
+     * @return the {@link SpatialHash} of the traps.
+     */
+    public SpatialHash<Trap> getTrapHash() {
+        return trapHash;
+    }
+
+    /**
+     * Returns the enemies of the level, bucketed by their tiles. An enemy has to update it whenever it moves.
+     *
+     * @return the {@link SpatialHash} of the enemies.
+     */
+    public SpatialHash<ChasingEnemy> getEnemyHash() {
+        return enemyHash;
+    }
+
+    /**
+     * Returns the pairs of touching enemies in this frame. The GameScreen updates it before it updates the enemies.
+     *
+     * @return the contact list ({@link SortAndSweep}) of the enemies.
+     */
+    public SortAndSweep<ChasingEnemy> getEnemyContacts() {
+        return enemyContacts;
+    }
+
+    /**
+     * Returns the collectibles of the level that are not collected yet, bucketed by their tiles.
+     *
+     * @return the {@link SpatialHash} of the collectibles.
+     */
+    public SpatialHash<Collectibles> getCollectibleHash() {
+        return collectibleHash;
+    }
+
+    /**
+     * Returns the portals of the level, bucketed by their tiles.
+     *
+     * @return the {@link SpatialHash} of the portals.
+     */
+    public SpatialHash<Portal> getPortalHash() {
+        return portalHash;
+    }
+
+    /**
+     * Returns the cache of the paths that have been found recently,
+     * which also counts its hits and misses.
+     *
+     * @return the {@link PathCache} of this level.
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Returns the queue that resolves the path searches of the enemies on worker threads.
+     *
+     * @return the {@link PathRequestQueue} of this level.
+     */
+    public PathRequestQueue getPathRequestQueue() {
+        return pathRequestQueue;
+    }
+
+    /**
+     * Returns the scheduler that decides in which frame the enemies may submit their path searches.
+     *
+     * @return the {@link PathScheduler} of this level.
+     */
+    public PathScheduler getPathScheduler() {
+        return pathScheduler;
+    }
+
+    /**
+     * Returns the flow field rooted at the player's tile,
+     * which is shared by all the BFS enemies of this level.
+     *
+     * @return the {@link FlowField} of this level.
+     */
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
 
     /**
      * Finds the nearest {@link Exit} to the given player coordinates.
@@ -630,4 +871,22 @@ public boolean isProperties(String key){
         }
         else return false;
     }
+
+    /**
+     * Stops the background work of this level, i.e., the worker threads of the pathfinding,
+     * and frees the textures of its tile sheets.
+     * Should be called when the level is left.
+     */
+    public void dispose() {
+        if (pathRequestQueue != null)
+            pathRequestQueue.dispose();
+        disposeTileSheets();
+    }
+
+    private void disposeTileSheets() {
+        if (tileSheet != null) tileSheet.dispose();
+        if (obstacleSheet != null) obstacleSheet.dispose();
+        tileSheet = null;
+        obstacleSheet = null;
+    }
 }
@@ -0,0 +1,84 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepares the next level on a background thread while the player is still looking at the victory panel,
+ * so that switching to it only has to upload the textures instead of loading everything. <br>
+ * The prepared level is put into the {@link LevelCache}, where it is found when the level starts.
+ * At most one level is preloaded at a time.
+ * <p>
+ * All methods must be called on the render thread; only the {@link PreparedLevel#prepare(int)} runs in the background.
+ */
+public class LevelPreloader implements Disposable {
+    private final LevelCache cache;
+    private final ExecutorService loader;
+    private Future<?> pending; // the level being preloaded, null if none
+    private int pendingLevel;
+
+    /**
+     * Constructs a preloader with its background thread.
+     *
+     * @param cache The cache to put the preloaded levels into.
+     */
+    public LevelPreloader(LevelCache cache) {
+        this.cache = cache;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LevelPreloader");
+            thread.setDaemon(true); // the preloading must never keep the game from exiting
+            thread.setPriority(Thread.MIN_PRIORITY); // the current level is still being rendered
+            return thread;
+        });
+    }
+
+    /**
+     * Starts preparing a level in the background, unless it is already cached or being prepared.
+     * The preloading of another level that hasn't started yet is cancelled.
+     *
+     * @param gameLevel The level of the game to prepare.
+     */
+    public void preload(int gameLevel) {
+        if (pending != null && pendingLevel == gameLevel) return;
+        if (pending != null) pending.cancel(false); // if it has started already, it still ends up in the cache
+        pending = null;
+        if (cache.contains(gameLevel)) return;
+
+        Gdx.app.log("LevelPreloader", "Preloading level " + gameLevel);
+        pendingLevel = gameLevel;
+        pending = loader.submit(() -> cache.put(gameLevel, PreparedLevel.prepare(gameLevel)));
+    }
+
+    /**
+     * Waits until a level that is being preloaded is in the cache, e.g., if the player clicks "Next Level" right away.
+     * Does nothing if that level is not being preloaded.
+     *
+     * @param gameLevel The level of the game that is about to start.
+     */
+    public void await(int gameLevel) {
+        if (pending == null || pendingLevel != gameLevel) return;
+
+        Future<?> future = pending;
+        pending = null;
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) { // it is loaded the usual way then
+            Gdx.app.error("LevelPreloader", "Preloading level " + gameLevel + " failed", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (pending != null) pending.cancel(false);
+        pending = null;
+        loader.shutdown();
+    }
+}
@@ -0,0 +1,213 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import de.tum.cit.fop.maze.tiles.Tile;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The tiles of a map, which are only created for the chunks (e.g., 32x32 cells) that are in use. <br>
+ * The {@link MapData} keeps the tile IDs of the whole map, but the {@link Tile}s and the cells of the
+ * {@link TiledMapTileLayer}s only exist for the chunks around the camera (see {@link #streamAround(int, int, int, int)})
+ * and the ones that have been looked up recently, e.g., by an enemy somewhere else on the map.
+ * The least recently used chunks are evicted once there are more than the capacity,
+ * so the number of tiles stays the same no matter how large the map is.
+ * <p>
+ * A chunk is created again from the map data when it is needed after its eviction, so the tiles must not have any state
+ * that the game changes. The tiles that are referenced from elsewhere (e.g., the entrance) are given by the
+ * {@link TileFactory} every time, so that they are the same instances.
+ */
+public class MapChunks {
+    /**
+     * Creates the tile of a cell on a layer when its chunk is created.
+     */
+    public interface TileFactory {
+        /**
+         * Creates the tile of a cell.
+         *
+         * @param layer     The layer of the cell.
+         * @param x         The x-coordinate of the cell in tiles.
+         * @param y         The y-coordinate of the cell in tiles.
+         * @param tileValue The tile ID of the cell on that layer, never {@link MapData#EMPTY}.
+         * @return the tile, or {@code null} if the ID is not drawn as a tile (e.g., a trap or the key).
+         */
+        Tile createTile(int layer, int x, int y, int tileValue);
+    }
+
+    private static class Chunk {
+        private final int index;
+        private final Tile[] tiles; // the tile on the most upper layer of every cell, packed like the map data
+
+        private Chunk(int index, int cellCount) {
+            this.index = index;
+            this.tiles = new Tile[cellCount];
+        }
+    }
+
+    private final MapData mapData;
+    private final TiledMapTileLayer[] layers;
+    private final TileFactory tileFactory;
+    private final int chunkSize, margin, capacity;
+    private final int chunksX, chunksY;
+    private final Chunk[] chunks; // null if not created
+    private final LinkedHashMap<Integer, Chunk> residentChunks; // in access order, the least recently used first
+    private Chunk lastUsedChunk; // the characters look up the same chunk many times in a row
+    private int createdCount; // the number of chunks that have been created, including the ones created again
+
+    /**
+     * Constructs the chunks of a map, without creating any of them yet.
+     *
+     * @param mapData     The map data with the tile IDs of every layer.
+     * @param layers      The layers of the {@link com.badlogic.gdx.maps.tiled.TiledMap}, one per layer of the map data,
+     *                    whose cells are set and cleared chunk by chunk.
+     * @param tileFactory Creates the tiles of the cells.
+     * @param chunkSize   The width and height of a chunk in tiles.
+     * @param margin      The number of tiles around the view whose chunks are created as well.
+     * @param capacity    The maximum number of chunks that are kept without being in view.
+     */
+    public MapChunks(MapData mapData, TiledMapTileLayer[] layers, TileFactory tileFactory,
+                     int chunkSize, int margin, int capacity) {
+        this.mapData = mapData;
+        this.layers = layers;
+        this.tileFactory = tileFactory;
+        this.chunkSize = chunkSize;
+        this.margin = margin;
+        this.capacity = capacity;
+        this.chunksX = (mapData.getWidth() + chunkSize - 1) / chunkSize;
+        this.chunksY = (mapData.getHeight() + chunkSize - 1) / chunkSize;
+        this.chunks = new Chunk[chunksX * chunksY];
+        this.residentChunks = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+    }
+
+    /**
+     * Returns the tile on the most upper layer of a cell, and creates the chunk of the cell if it doesn't exist.
+     *
+     * @param x The x-coordinate of the cell in tiles.
+     * @param y The y-coordinate of the cell in tiles.
+     * @return the tile, or {@code null} if there is no tile on the cell.
+     * @throws ArrayIndexOutOfBoundsException If the cell is not on the map.
+     */
+    public Tile getTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= mapData.getWidth() || y >= mapData.getHeight())
+            throw new ArrayIndexOutOfBoundsException("Tile (" + x + ", " + y + ") is not on the map");
+
+        int chunkX = x / chunkSize, chunkY = y / chunkSize;
+        Chunk chunk = chunks[chunkX * chunksY + chunkY];
+        if (chunk == null) {
+            chunk = createChunk(chunkX, chunkY);
+            lastUsedChunk = chunk; // never evicted right away
+            evictLeastRecentlyUsed(capacity);
+        }
+        else if (chunk != lastUsedChunk) {
+            residentChunks.get(chunk.index); // counts as a use
+            lastUsedChunk = chunk;
+        }
+        return chunk.tiles[(x - chunkX * chunkSize) * chunkSize + (y - chunkY * chunkSize)];
+    }
+
+    /**
+     * Creates the chunks in view (and within the margin around it) that don't exist,
+     * and evicts the least recently used chunks that are not in view if there are more than the capacity.
+     * Should be called every frame before the map is rendered.
+     *
+     * @param minTileX The left edge of the view in tiles.
+     * @param minTileY The bottom edge of the view in tiles.
+     * @param maxTileX The right edge of the view in tiles.
+     * @param maxTileY The top edge of the view in tiles.
+     */
+    public void streamAround(int minTileX, int minTileY, int maxTileX, int maxTileY) {
+        int minChunkX = Math.max(0, (minTileX - margin) / chunkSize);
+        int minChunkY = Math.max(0, (minTileY - margin) / chunkSize);
+        int maxChunkX = Math.min(chunksX - 1, Math.max(0, maxTileX + margin) / chunkSize);
+        int maxChunkY = Math.min(chunksY - 1, Math.max(0, maxTileY + margin) / chunkSize);
+        if (minChunkX > maxChunkX || minChunkY > maxChunkY) return; // the view is not on the map
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+                int index = chunkX * chunksY + chunkY;
+                if (chunks[index] == null) createChunk(chunkX, chunkY);
+                else residentChunks.get(index); // counts as a use
+            }
+        }
+        // the chunks in view have just been used, so they are the last ones to be evicted
+        lastUsedChunk = null;
+        int inView = (maxChunkX - minChunkX + 1) * (maxChunkY - minChunkY + 1);
+        evictLeastRecentlyUsed(Math.max(capacity, inView));
+    }
+
+    private Chunk createChunk(int chunkX, int chunkY) {
+        Chunk chunk = new Chunk(chunkX * chunksY + chunkY, chunkSize * chunkSize);
+        int startX = chunkX * chunkSize, endX = Math.min(startX + chunkSize, mapData.getWidth());
+        int startY = chunkY * chunkSize, endY = Math.min(startY + chunkSize, mapData.getHeight());
+        for (int layerI = 0; layerI < layers.length; layerI++) {
+            for (int x = startX; x < endX; x++) {
+                for (int y = startY; y < endY; y++) {
+                    int tileValue = mapData.getTile(layerI, x, y);
+                    if (tileValue == MapData.EMPTY) continue;
+                    Tile tile = tileFactory.createTile(layerI, x, y, tileValue);
+                    if (tile == null) continue;
+
+                    TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                    cell.setTile(tile);
+                    layers[layerI].setCell(x, y, cell);
+                    chunk.tiles[(x - startX) * chunkSize + (y - startY)] = tile; // the upper layers overwrite the lower ones
+                }
+            }
+        }
+        chunks[chunk.index] = chunk;
+        residentChunks.put(chunk.index, chunk);
+        createdCount++;
+        return chunk;
+    }
+
+    private void evictLeastRecentlyUsed(int maxChunks) {
+        Iterator<Chunk> leastRecentlyUsed = residentChunks.values().iterator();
+        while (residentChunks.size() > maxChunks) {
+            Chunk chunk = leastRecentlyUsed.next();
+            if (chunk == lastUsedChunk) continue;
+            leastRecentlyUsed.remove();
+            evict(chunk);
+        }
+    }
+
+    private void evict(Chunk chunk) {
+        int startX = (chunk.index / chunksY) * chunkSize, endX = Math.min(startX + chunkSize, mapData.getWidth());
+        int startY = (chunk.index % chunksY) * chunkSize, endY = Math.min(startY + chunkSize, mapData.getHeight());
+        for (TiledMapTileLayer layer : layers) {
+            for (int x = startX; x < endX; x++) {
+                for (int y = startY; y < endY; y++) {
+                    layer.setCell(x, y, null);
+                }
+            }
+        }
+        chunks[chunk.index] = null;
+    }
+
+    /**
+     * Returns the number of chunks that exist at the moment.
+     *
+     * @return the number of resident chunks.
+     */
+    public int getResidentCount() {
+        return residentChunks.size();
+    }
+
+    /**
+     * Returns the number of chunks that have been created so far, where a chunk created again after its eviction counts again.
+     *
+     * @return the number of created chunks.
+     */
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Returns the number of chunks that the map is split into.
+     *
+     * @return the number of chunks.
+     */
+    public int getChunkCount() {
+        return chunks.length;
+    }
+}
@@ -0,0 +1,200 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.tiles.TileRegistry;
+import de.tum.cit.fop.maze.tiles.TileType;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The parsed content of a map file: the tile IDs of every layer and the properties of the level. <br>
+ * Every layer is one {@code int} per cell, packed like in {@link de.tum.cit.fop.maze.util.NavigationGrid}
+ * ({@code x * height + y}), where the cells without a tile on that layer are {@link #EMPTY}.
+ * The first layer is the ground, and the layers above hold the additional stuff on it.
+ * <p>
+ * A map data is not modified after it has been parsed, so the arrays and the properties must not be written to.
+ * <p>
+ * The data loaded from a compiled {@link LevelFile} (or {@link #withNavigation() prepared} ahead of time)
+ * also carries the walkability of every cell and the connected regions of the walkable cells,
+ * so that the navigation grid doesn't have to be built again.
+ */
+public class MapData {
+    public static final int EMPTY = -1;
+
+    private final int width, height; // in tiles
+    private final int[][] layers;
+    private final ObjectMap<String, String> properties; // the ones that are not coordinates, e.g., "levelName"
+    private final boolean[] walkable; // packed like the layers, null if not precomputed
+    private final int[] regions;
+    private final int regionCount;
+
+    /**
+     * Constructs the map data from already parsed layers.
+     *
+     * @param width      The width of the map in tiles.
+     * @param height     The height of the map in tiles.
+     * @param layers     The tile IDs of every layer, each one {@code width * height} long.
+     * @param properties The non-tile properties of the level.
+     */
+    public MapData(int width, int height, int[][] layers, ObjectMap<String, String> properties) {
+        this(width, height, layers, properties, null, null, 0);
+    }
+
+    /**
+     * Constructs the map data from already parsed layers and a precomputed navigation grid.
+     *
+     * @param width       The width of the map in tiles.
+     * @param height      The height of the map in tiles.
+     * @param layers      The tile IDs of every layer, each one {@code width * height} long.
+     * @param properties  The non-tile properties of the level.
+     * @param walkable    Whether every cell is walkable, or {@code null} if it is not precomputed.
+     * @param regions     The region ID of every cell (see {@link NavigationGrid#getRegion(int)}).
+     * @param regionCount The number of regions.
+     */
+    public MapData(int width, int height, int[][] layers, ObjectMap<String, String> properties,
+                   boolean[] walkable, int[] regions, int regionCount) {
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+        this.properties = properties;
+        this.walkable = walkable;
+        this.regions = regions;
+        this.regionCount = regionCount;
+    }
+
+    /**
+     * Parses a map file, either a {@code .properties} file or a {@code .tmx} file of Tiled.
+     *
+     * @param filePath Path to the map file.
+     * @return the parsed map.
+     * @throws IOException If the file can't be read.
+     */
+    public static MapData parse(String filePath) throws IOException {
+        if (filePath.endsWith(".tmx"))
+            return TmxMapParser.parse(filePath);
+        return PropertiesMapParser.parse(filePath);
+    }
+
+    /**
+     * Puts a list of tiles into the layers, which are allocated once. A cell that is listed more than once
+     * gets its later tiles on the layers above the earlier ones, so the layers of every cell have no gaps.
+     *
+     * @param tiles      The x, y and the ID of every tile.
+     * @param width      The width of the map in tiles.
+     * @param height     The height of the map in tiles.
+     * @param properties The non-tile properties of the level.
+     * @return the map data with the tiles.
+     */
+    static MapData fromTiles(IntArray tiles, int width, int height, ObjectMap<String, String> properties) {
+        int[] tilesOnCell = new int[width * height];
+        int layerCount = 0;
+        for (int i = 0; i < tiles.size; i += 3) {
+            int cell = tiles.items[i] * height + tiles.items[i + 1];
+            layerCount = Math.max(layerCount, ++tilesOnCell[cell]);
+        }
+
+        int[][] layers = new int[layerCount][width * height];
+        for (int[] layer : layers)
+            Arrays.fill(layer, EMPTY);
+        Arrays.fill(tilesOnCell, 0);
+        for (int i = 0; i < tiles.size; i += 3) {
+            int cell = tiles.items[i] * height + tiles.items[i + 1];
+            layers[tilesOnCell[cell]++][cell] = tiles.items[i + 2];
+        }
+        return new MapData(width, height, layers, properties);
+    }
+
+    /**
+     * Creates the data of a map without any tiles, for a map file that could not be read.
+     *
+     * @return a map of 1x1 tiles with no layers and no properties.
+     */
+    public static MapData empty() {
+        return new MapData(1, 1, new int[0][], new ObjectMap<>());
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    /**
+     * Returns the ID of the tile at a cell on a layer.
+     *
+     * @param layer The index of the layer, 0 being the ground.
+     * @param x     The x-coordinate of the cell in tiles.
+     * @param y     The y-coordinate of the cell in tiles.
+     * @return the ID of the tile, or {@link #EMPTY} if there is no tile on that layer.
+     */
+    public int getTile(int layer, int x, int y) {
+        return layers[layer][x * height + y];
+    }
+
+    public ObjectMap<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Checks if the walkability and the regions have been precomputed, e.g., if the map comes from a {@link LevelFile}.
+     *
+     * @return {@code true} if {@link #createNavigationGrid()} can be used.
+     */
+    public boolean hasNavigation() {
+        return walkable != null;
+    }
+
+    /**
+     * Returns this map with a precomputed navigation grid, computing it if it is not there yet,
+     * with the same rule as the {@link LevelManager}: a cell is walkable unless the last tile put on it
+     * (from the lowest layer up) is a wall or a trap, where the key and the enemies are not put on the map as tiles.
+     *
+     * @return this map if the navigation grid is precomputed, or a copy of it with the navigation grid otherwise.
+     */
+    public MapData withNavigation() {
+        if (hasNavigation()) return this;
+
+        NavigationGrid grid = new NavigationGrid(width, height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                TileType type = null;
+                for (int layer = 0; layer < layers.length; layer++) {
+                    int id = getTile(layer, x, y);
+                    if (id == EMPTY || id == TileType.KEY.getId() || TileRegistry.isEnemy(id)) continue;
+                    type = TileRegistry.getType(id);
+                }
+                grid.setWalkable(x, y, type != TileType.WALL && type != TileType.TRAP);
+            }
+        }
+        grid.labelRegions();
+
+        boolean[] walkable = new boolean[grid.size()];
+        int[] regions = new int[grid.size()];
+        for (int i = 0; i < grid.size(); i++) {
+            walkable[i] = grid.isWalkable(i);
+            regions[i] = grid.getRegion(i);
+        }
+        return new MapData(width, height, layers, properties, walkable, regions, grid.getRegionCount());
+    }
+
+    /**
+     * Creates the navigation grid from the precomputed walkability and regions, without labelling the regions again.
+     *
+     * @return a new navigation grid of the map.
+     * @throws IllegalStateException If the navigation grid has not been precomputed.
+     */
+    public NavigationGrid createNavigationGrid() {
+        if (!hasNavigation())
+            throw new IllegalStateException("The navigation grid of this map has not been precomputed");
+        return new NavigationGrid(width, height, walkable, regions, regionCount);
+    }
+}
@@ -0,0 +1,190 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.tiles.HitMaskRegistry;
+import de.tum.cit.fop.maze.tiles.HitMaskSheet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static de.tum.cit.fop.maze.util.Constants.TOTAL_LEVELS;
+
+/**
+ * Everything of a level that can be loaded without OpenGL: the parsed map with its navigation grid,
+ * the decoded images of the tile sheets and their hit masks. <br>
+ * It can be prepared on any thread (see {@link LevelPreloader}), so that only the upload of the textures
+ * is left for the render thread when the {@link LevelManager} loads the level.
+ * <p>
+ * Nothing of it is changed by playing the level, so the same prepared level can be loaded again and again
+ * (e.g., when the player retries a level), which is what the {@link LevelCache} is for.
+ * The pixmaps stay with the prepared level and are only uploaded, so it has to be {@link #dispose() disposed}
+ * once it is not loaded anymore.
+ */
+public class PreparedLevel implements Disposable {
+    private final String mapFilePath;
+    private final MapData mapData;
+    private final Pixmap tileSheetPixmap, obstacleSheetPixmap;
+    private final HitMaskSheet tileSheetMasks, obstacleSheetMasks;
+    private final HitMaskRegistry hitMasks; // the masks cut out of the sheets, shared by every load of the level
+
+    private PreparedLevel(String mapFilePath, MapData mapData, FileHandle tileSheetFile, FileHandle obstacleSheetFile) {
+        this.mapFilePath = mapFilePath;
+        this.mapData = mapData;
+        this.tileSheetPixmap = new Pixmap(tileSheetFile);
+        this.obstacleSheetPixmap = new Pixmap(obstacleSheetFile);
+        this.tileSheetMasks = HitMaskSheet.of(tileSheetFile, tileSheetPixmap);
+        this.obstacleSheetMasks = HitMaskSheet.of(obstacleSheetFile, obstacleSheetPixmap);
+        this.hitMasks = new HitMaskRegistry();
+    }
+
+    /**
+     * Prepares a level of the game, with the files that the level uses:
+     * the tutorial (level 0) has its own map but the tile sheets of level 1,
+     * and an unknown level falls back to level 1.
+     *
+     * @param gameLevel The level of the game.
+     * @return the prepared level.
+     */
+    public static PreparedLevel prepare(int gameLevel) {
+        gameLevel = resolveLevel(gameLevel);
+        if (gameLevel == 0)
+            return prepare("maps/level-0-map.properties", "tilesets/level1_tileset.png", "tilesets/level1_obstacles.png");
+        return prepare("maps/level-" + gameLevel + "-map.properties",
+                "tilesets/level" + gameLevel + "_tileset.png", "tilesets/level" + gameLevel + "_obstacles.png");
+    }
+
+    /**
+     * Returns the level whose files are used for a level of the game, i.e., level 1 for an unknown level.
+     *
+     * @param gameLevel The level of the game.
+     * @return the level from 0 (the tutorial) to {@link de.tum.cit.fop.maze.util.Constants#TOTAL_LEVELS}.
+     */
+    public static int resolveLevel(int gameLevel) {
+        return (gameLevel < 0 || gameLevel > TOTAL_LEVELS) ? 1 : gameLevel;
+    }
+
+    /**
+     * Prepares a level from its files.
+     *
+     * @param mapFilePath       Path to the map file.
+     * @param tileSheetPath     Internal path to the tile sheet image.
+     * @param obstacleSheetPath Internal path to the obstacle sheet image.
+     * @return the prepared level.
+     */
+    public static PreparedLevel prepare(String mapFilePath, String tileSheetPath, String obstacleSheetPath) {
+        MapData mapData = readMapData(mapFilePath).withNavigation();
+        return new PreparedLevel(mapFilePath, mapData, Gdx.files.internal(tileSheetPath), Gdx.files.internal(obstacleSheetPath));
+    }
+
+    /**
+     * Reads the map data of a map file. The compiled {@link LevelFile} next to the map file is memory-mapped
+     * if there is an up-to-date one, and the map file ({@code .properties} or {@code .tmx}) is parsed otherwise.
+     */
+    private static MapData readMapData(String filePath) {
+        try {
+            if (isCompiledLevelUpToDate(filePath)) {
+                try {
+                    return LevelFile.read(Paths.get(LevelFile.getCompiledPath(filePath)));
+                } catch (GdxRuntimeException e) { // e.g., compiled by an older version of the game
+                    Gdx.app.error("PreparedLevel", e.getMessage() + ", parsing the map instead");
+                }
+            }
+            return MapData.parse(filePath);
+        } catch (IOException e) {
+            Gdx.app.error("TileMapParser", String.valueOf(e));
+            return MapData.empty();
+        }
+    }
+
+    /**
+     * Checks if there is a compiled level of the map file that is not older than the map file itself,
+     * so that a map that was edited after {@code compileLevels} is parsed again instead.
+     */
+    private static boolean isCompiledLevelUpToDate(String filePath) {
+        File compiled = new File(LevelFile.getCompiledPath(filePath));
+        if (!compiled.isFile()) return false;
+        if (compiled.lastModified() >= new File(filePath).lastModified()) return true;
+        Gdx.app.log("PreparedLevel", compiled.getName() + " is older than the map, parsing the map instead");
+        return false;
+    }
+
+    public String getMapFilePath() {
+        return mapFilePath;
+    }
+
+    public MapData getMapData() {
+        return mapData;
+    }
+
+    public HitMaskSheet getTileSheetMasks() {
+        return tileSheetMasks;
+    }
+
+    public HitMaskSheet getObstacleSheetMasks() {
+        return obstacleSheetMasks;
+    }
+
+    /**
+     * Returns the masks of the tiles of the level, which are created the first time that the level is loaded.
+     * Must only be used on the render thread.
+     *
+     * @return the masks of the level.
+     */
+    public HitMaskRegistry getHitMasks() {
+        return hitMasks;
+    }
+
+    /**
+     * Uploads the tile sheet to a new texture. Must be called on the render thread.
+     *
+     * @return the texture of the tile sheet.
+     */
+    public Texture createTileSheetTexture() {
+        return createTexture(tileSheetPixmap);
+    }
+
+    /**
+     * Uploads the obstacle sheet to a new texture. Must be called on the render thread.
+     *
+     * @return the texture of the obstacle sheet.
+     */
+    public Texture createObstacleSheetTexture() {
+        return createTexture(obstacleSheetPixmap);
+    }
+
+    private static Texture createTexture(Pixmap pixmap) {
+        return new Texture(new PixmapTextureData(pixmap, null, false, false)); // the pixmap is kept for the next load
+    }
+
+    /**
+     * Estimates the memory that the prepared level takes, for the memory cap of the {@link LevelCache}.
+     *
+     * @return the approximate size in bytes.
+     */
+    public long getSizeInBytes() {
+        long size = tileSheetPixmap.getPixels().capacity() + obstacleSheetPixmap.getPixels().capacity();
+        size += tileSheetMasks.getSizeInBytes() + obstacleSheetMasks.getSizeInBytes();
+        long cellCount = (long) mapData.getWidth() * mapData.getHeight();
+        size += cellCount * (mapData.getLayerCount() * Integer.BYTES + 1 + Integer.BYTES); // layers, walkability, regions
+        for (ObjectMap.Entry<String, String> property : mapData.getProperties())
+            size += 2L * (property.key.length() + property.value.length());
+        return size;
+    }
+
+    /**
+     * Disposes the pixmaps. The textures that have been uploaded from them stay valid.
+     */
+    @Override
+    public void dispose() {
+        tileSheetPixmap.dispose();
+        obstacleSheetPixmap.dispose();
+    }
+}
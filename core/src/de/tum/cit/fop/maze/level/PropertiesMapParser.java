@@ -0,0 +1,148 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Parses a {@code .properties} map file into a {@link MapData} in a single pass over its bytes. <br>
+ * A line whose key is a coordinate (e.g., {@code 6,0=10,4}) lists the tiles on that cell from the lowest layer up;
+ * every other line is a property of the level (e.g., {@code levelName=Stuttgart Airport}).
+ * <p>
+ * The coordinates and the tile IDs are read digit by digit, so no strings are created for them;
+ * only the keys and the values of the properties become strings.
+ * Since the size of the map is only known at the end of the file, the tiles are collected first
+ * and then written into the layers, which are allocated once.
+ * <p>
+ * Like before, lines without exactly one {@code =} are skipped, as are the comments ({@code #} or {@code !}),
+ * and so are empty tile values (e.g., {@code 6,0=10,}).
+ * The values are taken as they are (e.g., {@code \n} stays a backslash and an n), and the file is read as UTF-8.
+ */
+public final class PropertiesMapParser {
+    private PropertiesMapParser() {
+    }
+
+    /**
+     * Parses a map file.
+     *
+     * @param filePath Path to the properties file.
+     * @return the parsed map.
+     * @throws IOException If the file can't be read.
+     */
+    public static MapData parse(String filePath) throws IOException {
+        return parse(Files.readAllBytes(Paths.get(filePath)));
+    }
+
+    /**
+     * Parses the content of a map file.
+     *
+     * @param bytes The content of the properties file.
+     * @return the parsed map.
+     */
+    public static MapData parse(byte[] bytes) {
+        IntArray tiles = new IntArray(bytes.length / 4); // x, y and the ID of every tile, in the order of the file
+        ObjectMap<String, String> properties = new ObjectMap<>();
+        int width = 1, height = 1;
+
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') lineEnd++;
+            int next = lineEnd + 1;
+
+            // trim the line
+            int start = skipSpaces(bytes, lineStart, lineEnd);
+            int end = lineEnd;
+            while (end > start && isSpace(bytes[end - 1])) end--; // also drops the '\r'
+
+            int equals = indexOf(bytes, '=', start, end);
+            if (start == end || bytes[start] == '#' || bytes[start] == '!' // comments
+                    || equals < 0 || indexOf(bytes, '=', equals + 1, end) >= 0) { // not exactly one key and one value
+                lineStart = next;
+                continue;
+            }
+            int keyEnd = equals;
+            while (keyEnd > start && isSpace(bytes[keyEnd - 1])) keyEnd--;
+            int valueStart = skipSpaces(bytes, equals + 1, end);
+            if (valueStart == end) { // no value
+                lineStart = next;
+                continue;
+            }
+
+            // the key is a coordinate if it is "x,y", with optional spaces after the comma
+            int xEnd = skipDigits(bytes, start, keyEnd);
+            int yStart = (xEnd > start && xEnd < keyEnd && bytes[xEnd] == ',') ? skipSpaces(bytes, xEnd + 1, keyEnd) : -1;
+            if (yStart >= 0 && yStart < keyEnd && skipDigits(bytes, yStart, keyEnd) == keyEnd) {
+                int x = parseDigits(bytes, start, xEnd);
+                int y = parseDigits(bytes, yStart, keyEnd);
+                width = Math.max(width, x + 1);
+                height = Math.max(height, y + 1);
+
+                // the tiles are separated by commas, from the lowest layer up
+                for (int tileStart = valueStart; tileStart <= end; ) {
+                    int tileEnd = indexOf(bytes, ',', tileStart, end);
+                    if (tileEnd < 0) tileEnd = end;
+                    if (tileEnd == tileStart) { // an empty value, e.g., after a trailing comma
+                        tileStart = tileEnd + 1;
+                        continue;
+                    }
+                    if (skipDigits(bytes, tileStart, tileEnd) == tileEnd) {
+                        tiles.add(x, y, parseDigits(bytes, tileStart, tileEnd));
+                    } else {
+                        reportError("Invalid tile value: "
+                                + new String(bytes, tileStart, tileEnd - tileStart, StandardCharsets.UTF_8)
+                                + " at position " + x + "," + y);
+                    }
+                    tileStart = tileEnd + 1;
+                }
+            } else {
+                properties.put(new String(bytes, start, keyEnd - start, StandardCharsets.UTF_8),
+                        new String(bytes, valueStart, end - valueStart, StandardCharsets.UTF_8));
+            }
+            lineStart = next;
+        }
+
+        return MapData.fromTiles(tiles, width, height, properties);
+    }
+
+    /**
+     * Reports an error in the map file. The parser also runs in the {@link LevelCompiler} at build time,
+     * where there is no {@link Gdx#app}, so it is printed to the standard error there.
+     */
+    private static void reportError(String message) {
+        if (Gdx.app != null) Gdx.app.error("TileMapParser", message);
+        else System.err.println("TileMapParser: " + message);
+    }
+
+    private static int indexOf(byte[] bytes, char c, int from, int to) {
+        for (int i = from; i < to; i++)
+            if (bytes[i] == c) return i;
+        return -1;
+    }
+
+    private static int skipSpaces(byte[] bytes, int from, int to) {
+        while (from < to && isSpace(bytes[from])) from++;
+        return from;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' '; // the bytes of non-ASCII characters in UTF-8 are negative
+    }
+
+    private static int skipDigits(byte[] bytes, int from, int to) {
+        while (from < to && bytes[from] >= '0' && bytes[from] <= '9') from++;
+        return from;
+    }
+
+    private static int parseDigits(byte[] bytes, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++)
+            value = value * 10 + (bytes[i] - '0');
+        return value;
+    }
+}
@@ -0,0 +1,114 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.base.GameObject;
+
+/**
+ * The pairs of game objects whose hitboxes overlap, found once per frame with sort and sweep along the x-axis,
+ * e.g., the chasing enemies that are touching each other. <br>
+ * The objects are kept sorted by the left edges of their hitboxes. Since they only move a little between two frames,
+ * the order hardly changes, so an insertion sort is almost linear. Then every object is only compared with the objects
+ * after it whose left edges are before its right edge, instead of with all the other objects.
+ * <p>
+ * Every object reads its contacts from {@link #getContacts(GameObject)} during its update.
+ * They are the contacts at the start of the frame, even if an object has already moved away in this frame.
+ *
+ * @param <T> the type of the game objects.
+ */
+public class SortAndSweep<T extends GameObject> {
+    private final Array<T> sortedObjects; // by the left edges of their hitboxes
+    private final ObjectMap<T, Array<T>> contacts; // of every object, reused every frame
+    private final Array<T> noContacts = new Array<>(0);
+    private final float[] minX, maxX, minY, maxY; // the hitboxes of the sorted objects in this frame
+    private int pairCount;
+
+    /**
+     * Constructs the contact list of the given objects. The contacts are found by the first {@link #update()}.
+     *
+     * @param objects The game objects, e.g., the chasing enemies of the level.
+     */
+    public SortAndSweep(Array<? extends T> objects) {
+        this.sortedObjects = new Array<>(true, objects.size);
+        this.contacts = new ObjectMap<>(objects.size);
+        for (int i = 0; i < objects.size; i++) {
+            sortedObjects.add(objects.get(i));
+            contacts.put(objects.get(i), new Array<>(false, 4));
+        }
+        this.minX = new float[objects.size];
+        this.maxX = new float[objects.size];
+        this.minY = new float[objects.size];
+        this.maxY = new float[objects.size];
+    }
+
+    /**
+     * Finds the pairs of objects that are touching now. Must be called once per frame, before the objects are updated.
+     */
+    public void update() {
+        pairCount = 0;
+        int n = sortedObjects.size;
+        for (int i = 0; i < n; i++) {
+            T object = sortedObjects.get(i);
+            contacts.get(object).clear();
+            float halfWidth = object.getHitboxWidthOnScreen() / 2, halfHeight = object.getHitboxHeightOnScreen() / 2;
+            minX[i] = object.getX() - halfWidth;
+            maxX[i] = object.getX() + halfWidth;
+            minY[i] = object.getY() - halfHeight;
+            maxY[i] = object.getY() + halfHeight;
+        }
+        sortByMinX();
+
+        // sweep: an object can only overlap the following ones whose left edges are before its right edge
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n && minX[j] < maxX[i]; j++) {
+                if (minY[j] < maxY[i] && maxY[j] > minY[i]) { // overlapping like Rectangle#overlaps
+                    T object = sortedObjects.get(i), other = sortedObjects.get(j);
+                    contacts.get(object).add(other);
+                    contacts.get(other).add(object);
+                    pairCount++;
+                }
+            }
+        }
+    }
+
+    // insertion sort of the objects together with their hitboxes, which is almost linear if the order has hardly changed
+    private void sortByMinX() {
+        for (int i = 1; i < sortedObjects.size; i++) {
+            T object = sortedObjects.get(i);
+            float left = minX[i], right = maxX[i], bottom = minY[i], top = maxY[i];
+            int j = i - 1;
+            for (; j >= 0 && minX[j] > left; j--) {
+                sortedObjects.set(j + 1, sortedObjects.get(j));
+                minX[j + 1] = minX[j];
+                maxX[j + 1] = maxX[j];
+                minY[j + 1] = minY[j];
+                maxY[j + 1] = maxY[j];
+            }
+            sortedObjects.set(j + 1, object);
+            minX[j + 1] = left;
+            maxX[j + 1] = right;
+            minY[j + 1] = bottom;
+            maxY[j + 1] = top;
+        }
+    }
+
+    /**
+     * Returns the other objects that an object was touching at the start of this frame.
+     * The array must not be modified.
+     *
+     * @param object The game object.
+     * @return the objects touching it, which is empty for an object that is not in this list.
+     */
+    public Array<T> getContacts(T object) {
+        return contacts.get(object, noContacts);
+    }
+
+    /**
+     * Returns the number of touching pairs in this frame.
+     *
+     * @return the number of pairs.
+     */
+    public int getPairCount() {
+        return pairCount;
+    }
+}
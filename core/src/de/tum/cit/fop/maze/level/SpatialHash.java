@@ -0,0 +1,172 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import de.tum.cit.fop.maze.base.GameObject;
+
+import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
+
+/**
+ * A uniform grid of buckets, one per tile of the map, that finds the game objects near a point or an area
+ * without going through all of them. <br>
+ * Every object is kept in the bucket of the tile that its center is on. A query only looks into the buckets
+ * of the queried area, grown by the largest half-size of the hitboxes in the grid,
+ * so that an object whose center is just outside the area but whose hitbox reaches into it is still found.
+ * <p>
+ * The objects that move (the enemies) have to be {@link #update(GameObject) updated} whenever they have moved,
+ * which only moves them to another bucket if they are on another tile now.
+ * The buckets are packed like in {@link de.tum.cit.fop.maze.util.NavigationGrid} ({@code x * height + y}).
+ *
+ * @param <T> the type of the game objects in the grid.
+ */
+public class SpatialHash<T extends GameObject> {
+    private final int width, height; // in tiles
+    private final Array<T>[] buckets; // created when the first object is put into them
+    private final ObjectIntMap<T> bucketOf; // the bucket that every object is in
+    private float maxHalfWidth, maxHalfHeight; // of the hitboxes of all the objects that have been in the grid
+
+    /**
+     * Constructs an empty spatial hash for a map of the given size.
+     *
+     * @param width  The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     */
+    @SuppressWarnings("unchecked")
+    public SpatialHash(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.buckets = (Array<T>[]) new Array<?>[width * height];
+        this.bucketOf = new ObjectIntMap<>();
+    }
+
+    /**
+     * Puts the object into the bucket of its current tile.
+     *
+     * @param object The object to add, which must not be in the grid yet.
+     */
+    public void insert(T object) {
+        maxHalfWidth = Math.max(maxHalfWidth, object.getHitboxWidthOnScreen() / 2);
+        maxHalfHeight = Math.max(maxHalfHeight, object.getHitboxHeightOnScreen() / 2);
+        int bucket = getBucket(object.getX(), object.getY());
+        addToBucket(bucket, object);
+        bucketOf.put(object, bucket);
+    }
+
+    /**
+     * Puts all the objects into the grid.
+     *
+     * @param objects The objects to add.
+     */
+    public void insertAll(Array<? extends T> objects) {
+        for (int i = 0; i < objects.size; i++)
+            insert(objects.get(i));
+    }
+
+    /**
+     * Removes the object from the grid, e.g., once a collectible has been collected.
+     *
+     * @param object The object to remove.
+     */
+    public void remove(T object) {
+        int bucket = bucketOf.remove(object, -1);
+        if (bucket != -1)
+            buckets[bucket].removeValue(object, true);
+    }
+
+    /**
+     * Moves the object into the bucket of its current tile, if it has moved onto another tile.
+     * Must be called whenever an object in the grid has moved.
+     *
+     * @param object The object that has moved.
+     */
+    public void update(T object) {
+        int oldBucket = bucketOf.get(object, -1);
+        if (oldBucket == -1) return; // not in this grid
+        int newBucket = getBucket(object.getX(), object.getY());
+        if (newBucket == oldBucket) return;
+
+        buckets[oldBucket].removeValue(object, true);
+        addToBucket(newBucket, object);
+        bucketOf.put(object, newBucket);
+    }
+
+    /**
+     * Finds the objects whose hitboxes overlap the given area.
+     *
+     * @param area   The area in world pixels.
+     * @param result The array to write the found objects into, it is cleared first.
+     * @return the result array.
+     */
+    public Array<T> queryAabb(Rectangle area, Array<T> result) {
+        result.clear();
+        int minTileX = toTileX(area.x - maxHalfWidth), maxTileX = toTileX(area.x + area.width + maxHalfWidth);
+        int minTileY = toTileY(area.y - maxHalfHeight), maxTileY = toTileY(area.y + area.height + maxHalfHeight);
+        for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+            for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+                Array<T> bucket = buckets[tileX * height + tileY];
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size; i++) {
+                    T object = bucket.get(i);
+                    if (object.getHitbox().overlaps(area)) result.add(object);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the objects whose centers are within the given radius of a point.
+     *
+     * @param x      The x-coordinate of the point in world pixels.
+     * @param y      The y-coordinate of the point in world pixels.
+     * @param radius The radius in world pixels.
+     * @param result The array to write the found objects into, it is cleared first.
+     * @return the result array.
+     */
+    public Array<T> queryRadius(float x, float y, float radius, Array<T> result) {
+        result.clear();
+        int minTileX = toTileX(x - radius), maxTileX = toTileX(x + radius);
+        int minTileY = toTileY(y - radius), maxTileY = toTileY(y + radius);
+        for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+            for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+                Array<T> bucket = buckets[tileX * height + tileY];
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size; i++) {
+                    T object = bucket.get(i);
+                    float dx = object.getX() - x;
+                    float dy = object.getY() - y;
+                    if (dx * dx + dy * dy <= radius * radius) result.add(object);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of objects in the grid.
+     *
+     * @return the number of objects.
+     */
+    public int size() {
+        return bucketOf.size;
+    }
+
+    private void addToBucket(int bucket, T object) {
+        if (buckets[bucket] == null) buckets[bucket] = new Array<>(false, 4);
+        buckets[bucket].add(object);
+    }
+
+    private int getBucket(float x, float y) {
+        return toTileX(x) * height + toTileY(y);
+    }
+
+    // the objects and the queries outside the map are clamped to the tiles on the border
+    private int toTileX(float x) {
+        return Math.max(0, Math.min(width - 1, (int) Math.floor(x / TILE_SCREEN_SIZE)));
+    }
+
+    private int toTileY(float y) {
+        return Math.max(0, Math.min(height - 1, (int) Math.floor(y / TILE_SCREEN_SIZE)));
+    }
+}
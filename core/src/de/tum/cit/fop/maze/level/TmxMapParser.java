@@ -0,0 +1,221 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Parses a {@code .tmx} map of the Tiled editor (e.g., {@code maps/tiled_map_level_1.tmx}) into a {@link MapData},
+ * with the same result as converting it with {@code maps/TMX2Properties.py} and parsing the {@code .properties} file. <br>
+ * The XML is streamed (StAX), and the data of every tile layer is decoded straight into an {@code int[]},
+ * whether it is CSV, base64 (uncompressed, zlib or gzip) or the old one-element-per-tile XML.
+ * <p>
+ * Like the script, the tile IDs are the global IDs of Tiled minus the first global ID of their tile sheet,
+ * the rows are flipped (Tiled goes down from the top, but our y goes up from the bottom),
+ * and the tiles of every cell are stacked from the lowest layer up without gaps.
+ * The flip bits of the global IDs are ignored.
+ * The custom properties of the map (e.g., {@code levelName}) become the properties of the level.
+ */
+public final class TmxMapParser {
+    private static final int FLIP_BITS = 0xF0000000; // flipped horizontally, vertically, diagonally, and rotated hexagonally
+
+    private TmxMapParser() {
+    }
+
+    /**
+     * Parses a Tiled map file.
+     *
+     * @param filePath Path to the {@code .tmx} file.
+     * @return the parsed map.
+     * @throws IOException If the file can't be read or is not well-formed XML.
+     */
+    public static MapData parse(String filePath) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)))) {
+            return parse(in);
+        } catch (GdxRuntimeException e) {
+            throw new GdxRuntimeException("Invalid Tiled map: " + filePath, e);
+        }
+    }
+
+    /**
+     * Parses the content of a Tiled map file.
+     *
+     * @param in The content of the {@code .tmx} file, which is not closed.
+     * @return the parsed map.
+     * @throws IOException         If the stream can't be read or is not well-formed XML.
+     * @throws GdxRuntimeException If the map is not supported, e.g., an infinite map.
+     */
+    public static MapData parse(InputStream in) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                return parse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static MapData parse(XMLStreamReader reader) throws XMLStreamException, IOException {
+        int width = 0, height = 0;
+        IntArray firstGlobalIds = new IntArray();
+        Array<int[]> layers = new Array<>();
+        ObjectMap<String, String> properties = new ObjectMap<>();
+
+        int depth = 0; // of the current element, the <map> is 1, so the properties of the map itself are 3
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+            depth++;
+
+            switch (reader.getLocalName()) {
+                case "map" -> {
+                    if ("1".equals(reader.getAttributeValue(null, "infinite")))
+                        throw new GdxRuntimeException("Infinite maps are not supported");
+                    width = getIntAttribute(reader, "width");
+                    height = getIntAttribute(reader, "height");
+                }
+                case "tileset" -> firstGlobalIds.add(getIntAttribute(reader, "firstgid"));
+                case "data" -> {
+                    layers.add(readData(reader, width * height));
+                    depth--; // the reader is at the end of the <data> now
+                }
+                case "property" -> {
+                    if (depth == 3) { // not the properties of a layer or a tile sheet
+                        String name = reader.getAttributeValue(null, "name");
+                        String value = reader.getAttributeValue(null, "value");
+                        if (value == null) { // a multi-line string is the content of the element
+                            value = reader.getElementText();
+                            depth--;
+                        }
+                        properties.put(name, value);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        firstGlobalIds.sort();
+        IntArray tiles = new IntArray(width * height * 3);
+        for (int[] layer : layers) {
+            for (int row = 0; row < height; row++) {
+                int y = height - 1 - row;
+                for (int x = 0; x < width; x++) {
+                    int globalId = layer[row * width + x] & ~FLIP_BITS;
+                    if (globalId == 0) continue; // no tile in this cell on this layer
+                    tiles.add(x, y, globalId - getFirstGlobalId(firstGlobalIds, globalId));
+                }
+            }
+        }
+        return MapData.fromTiles(tiles, Math.max(width, 1), Math.max(height, 1), properties);
+    }
+
+    /**
+     * Returns the first global ID of the tile sheet that a global ID belongs to,
+     * i.e., the largest first global ID that is not larger than it.
+     */
+    private static int getFirstGlobalId(IntArray sortedFirstGlobalIds, int globalId) {
+        int firstGlobalId = 0;
+        for (int i = 0; i < sortedFirstGlobalIds.size && sortedFirstGlobalIds.items[i] <= globalId; i++)
+            firstGlobalId = sortedFirstGlobalIds.items[i];
+        return firstGlobalId;
+    }
+
+    /**
+     * Decodes the {@code <data>} of a tile layer into the global IDs of its cells, row by row from the top.
+     * The reader is at the start of the {@code <data>} and is left at its end.
+     */
+    private static int[] readData(XMLStreamReader reader, int cellCount) throws XMLStreamException, IOException {
+        String encoding = reader.getAttributeValue(null, "encoding");
+        String compression = reader.getAttributeValue(null, "compression");
+        int[] globalIds = new int[cellCount];
+
+        if (encoding == null) { // <tile gid="..."/> for every cell
+            int cell = 0;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String globalId = reader.getAttributeValue(null, "gid");
+                if (cell < cellCount && globalId != null) globalIds[cell] = Integer.parseUnsignedInt(globalId);
+                cell++;
+                reader.nextTag(); // the end of the <tile>
+            }
+            return globalIds;
+        }
+
+        String text = reader.getElementText();
+        switch (encoding) {
+            case "csv" -> readCsv(text, globalIds);
+            case "base64" -> readBase64(text, compression, globalIds);
+            default -> throw new GdxRuntimeException("Unsupported layer encoding: " + encoding);
+        }
+        return globalIds;
+    }
+
+    private static void readCsv(String text, int[] globalIds) {
+        int cell = 0;
+        long value = 0;
+        boolean hasDigits = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = (i < text.length()) ? text.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                hasDigits = true;
+            } else if (c == ',') {
+                if (hasDigits && cell < globalIds.length) globalIds[cell] = (int) value; // the flip bits make it unsigned
+                if (hasDigits) cell++;
+                value = 0;
+                hasDigits = false;
+            } else if (c > ' ') {
+                throw new GdxRuntimeException("Invalid character in CSV layer data: " + c);
+            }
+        }
+        if (cell != globalIds.length)
+            throw new GdxRuntimeException("Expected " + globalIds.length + " tiles in the layer, but got " + cell);
+    }
+
+    private static void readBase64(String text, String compression, int[] globalIds) throws IOException {
+        InputStream bytes = new ByteArrayInputStream(Base64.getMimeDecoder().decode(text.trim()));
+        if (compression != null) {
+            bytes = switch (compression) {
+                case "zlib" -> new InflaterInputStream(bytes);
+                case "gzip" -> new GZIPInputStream(bytes);
+                default -> throw new GdxRuntimeException("Unsupported layer compression: " + compression);
+            };
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(bytes))) {
+            for (int cell = 0; cell < globalIds.length; cell++)
+                globalIds[cell] = Integer.reverseBytes(in.readInt()); // little-endian
+        }
+    }
+
+    private static int getIntAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null)
+            throw new GdxRuntimeException("Missing attribute " + name + " of <" + reader.getLocalName() + ">");
+        return Integer.parseInt(value);
+    }
+}
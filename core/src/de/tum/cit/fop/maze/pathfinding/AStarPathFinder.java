@@ -0,0 +1,160 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * A* search on a {@link NavigationGrid} with the Manhattan distance as the heuristic. <br>
+ * Since the enemies only move horizontally and vertically and every step costs one,
+ * the Manhattan distance never overestimates, so the paths are as short as the ones of a BFS.
+ * But unlike a BFS, the search is pulled towards the goal and doesn't explore the whole reachable area.
+ */
+public class AStarPathFinder implements PathFinder {
+    // right, left, up, down
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final NavigationGrid grid;
+    private final NodeHeap open;
+
+    private final int[] costs; // the cost from the start (g) of every seen tile
+    private final int[] parent; // the tile that we came from, for every seen tile
+    private final int[] seen; // a tile has a cost in the current search if seen[tile] == generation
+    private final int[] closed; // a tile is expanded in the current search if closed[tile] == generation
+    private final int[] goalMarks; // a tile is a goal of the current search if goalMarks[tile] == generation
+    private final IntArray goals; // the goals of the current search, for the heuristic
+    private int generation;
+    private int expandedNodes;
+
+    /**
+     * Constructs an A* search for the given grid.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     */
+    public AStarPathFinder(NavigationGrid grid) {
+        this.grid = grid;
+        this.open = new NodeHeap(grid.size());
+        this.costs = new int[grid.size()];
+        this.parent = new int[grid.size()];
+        this.seen = new int[grid.size()];
+        this.closed = new int[grid.size()];
+        this.goalMarks = new int[grid.size()];
+        this.goals = new IntArray();
+        this.generation = 0;
+    }
+
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        nextGeneration();
+        goals.clear();
+        goals.add(goal);
+        goalMarks[goal] = generation;
+        return search(start, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        nextGeneration();
+        this.goals.clear();
+        this.goals.addAll(goals);
+        for (int i = 0; i < goals.size; i++)
+            goalMarks[goals.get(i)] = generation;
+        return search(start, path);
+    }
+
+    /**
+     * Runs the A* search from the start tile until it expands any of the tiles that are marked as a goal.
+     */
+    private boolean search(int start, IntArray path) {
+        path.clear();
+        expandedNodes = 0;
+        if (goals.isEmpty()) return false;
+
+        costs[start] = 0;
+        seen[start] = generation;
+        open.push(start, key(0, heuristic(start)));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            closed[current] = generation;
+            expandedNodes++;
+
+            if (goalMarks[current] == generation) {
+                open.clear();
+                reconstructPath(start, current, path);
+                return true;
+            }
+
+            int currentX = grid.getX(current);
+            int currentY = grid.getY(current);
+            int nextCost = costs[current] + 1;
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int neighborX = currentX + DIRECTION_X[dir];
+                int neighborY = currentY + DIRECTION_Y[dir];
+                if (!grid.isWalkable(neighborX, neighborY)) continue;
+
+                int neighbor = grid.toIndex(neighborX, neighborY);
+                if (closed[neighbor] == generation) continue;
+                if (seen[neighbor] == generation && costs[neighbor] <= nextCost) continue;
+
+                costs[neighbor] = nextCost;
+                seen[neighbor] = generation;
+                parent[neighbor] = current;
+                open.push(neighbor, key(nextCost, heuristic(neighbor)));
+            }
+        }
+
+        return false; // No path found
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * The Manhattan distance to the closest goal, which still never overestimates with several goals.
+     */
+    private int heuristic(int node) {
+        int nodeX = grid.getX(node), nodeY = grid.getY(node);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            min = Math.min(min, Math.abs(nodeX - grid.getX(goal)) + Math.abs(nodeY - grid.getY(goal)));
+        }
+        return min;
+    }
+
+    /**
+     * Orders the open tiles by f = g + h, and among equal f the one closer to the goal first,
+     * which saves expanding many tiles with the same f in open areas.
+     */
+    private static long key(int cost, int heuristic) {
+        return ((long) (cost + heuristic) << 32) | heuristic;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == 0) { // overflow, every old mark could now look like a current one
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(goalMarks, 0);
+            generation = 1;
+        }
+    }
+
+    private void reconstructPath(int start, int goal, IntArray path) {
+        int length = 1;
+        for (int current = goal; current != start; current = parent[current])
+            length++;
+
+        int[] items = path.setSize(length);
+        int current = goal;
+        for (int i = length - 1; i >= 0; i--) {
+            items[i] = current;
+            current = parent[current];
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A {@link PathFinder} that looks up a {@link PathCache} first, and only asks the wrapped path finder on a miss.
+ * Several caching path finders (e.g., one for each worker thread) can share the same cache,
+ * as long as they search on the same version of the grid.
+ */
+public class CachingPathFinder implements PathFinder {
+    private final PathFinder pathFinder;
+    private final PathCache cache;
+    private final int gridVersion; // the version of the grid that the wrapped path finder searches on
+    private final IntArray singleGoal; // reused for the single goal search
+    private int expandedNodes;
+
+    /**
+     * Constructs a caching path finder.
+     *
+     * @param pathFinder  The {@link PathFinder} that searches on a miss.
+     * @param cache       The {@link PathCache} to look up and to fill.
+     * @param gridVersion The version of the grid that the path finder searches on
+     *                    (see {@link de.tum.cit.fop.maze.util.NavigationGrid#getVersion()}).
+     */
+    public CachingPathFinder(PathFinder pathFinder, PathCache cache, int gridVersion) {
+        this.pathFinder = pathFinder;
+        this.cache = cache;
+        this.gridVersion = gridVersion;
+        this.singleGoal = new IntArray(1);
+    }
+
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        singleGoal.clear();
+        singleGoal.add(goal);
+        return findPath(start, singleGoal, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        if (cache.get(gridVersion, start, goals, path)) {
+            expandedNodes = 0; // a hit doesn't search at all
+            return path.notEmpty();
+        }
+
+        boolean found = pathFinder.findPath(start, goals, path);
+        expandedNodes = pathFinder.getExpandedNodes();
+        cache.put(gridVersion, start, goals, path);
+        return found;
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+}
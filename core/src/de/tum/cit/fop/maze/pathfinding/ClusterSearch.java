@@ -0,0 +1,136 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * A BFS that stays inside a window of the map, i.e., a cluster of a {@link HierarchicalGraph} or the tiles around a start. <br>
+ * Its arrays are indexed by local indices of the window, so their size only depends on the cluster size, not on the map.
+ * They are reused for every search, so every thread needs its own instance.
+ */
+class ClusterSearch {
+    static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    // right, left, up, down
+    static final int[] DIRECTION_X = {1, -1, 0, 0};
+    static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final NavigationGrid grid;
+    private final int stride; // the largest height of a window
+    private final int[] distances;
+    private final int[] parent;
+    private final int[] queue;
+    private final int[] visited;
+    private int generation;
+    private int windowX, windowY; // the lower left corner of the window of the last search
+
+    /**
+     * Constructs a search for windows of at most {@code 2 * clusterSize + 1} tiles in both directions.
+     *
+     * @param grid        The {@link NavigationGrid} to search on.
+     * @param clusterSize The width and height of a cluster in tiles.
+     */
+    ClusterSearch(NavigationGrid grid, int clusterSize) {
+        this.grid = grid;
+        this.stride = 2 * clusterSize + 1;
+        int size = stride * stride;
+        this.distances = new int[size];
+        this.parent = new int[size];
+        this.queue = new int[size];
+        this.visited = new int[size];
+    }
+
+    /**
+     * Runs a BFS from the given tile that stays inside the given window of the map.
+     *
+     * @param source      The packed index of the source tile, which doesn't have to be walkable.
+     * @param target      The packed index of the target tile, or -1 to reach all the tiles of the window.
+     * @param stopAtGoals The goals to stop at when the first one of them is reached, or {@code null}.
+     * @return The packed index of the reached target or goal, or -1 if the search stopped without one.
+     */
+    int search(int source, int target, IntArray stopAtGoals, int windowX, int windowY, int width, int height) {
+        generation++;
+        if (generation == 0) { // overflow, every old mark could now look like a current one
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
+        this.windowX = windowX;
+        this.windowY = windowY;
+
+        int head = 0, tail = 0;
+        int targetIndex = (target == -1) ? -1 : toLocal(target);
+        int sourceIndex = toLocal(source);
+        visited[sourceIndex] = generation;
+        distances[sourceIndex] = 0;
+        parent[sourceIndex] = -1;
+        queue[tail++] = sourceIndex;
+        while (head < tail) {
+            int current = queue[head++];
+            int currentX = current / stride, currentY = current % stride;
+            if (current == targetIndex) return target;
+            if (stopAtGoals != null && stopAtGoals.contains(grid.toIndex(windowX + currentX, windowY + currentY)))
+                return grid.toIndex(windowX + currentX, windowY + currentY);
+
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int neighborX = currentX + DIRECTION_X[dir];
+                int neighborY = currentY + DIRECTION_Y[dir];
+                if (neighborX < 0 || neighborY < 0 || neighborX >= width || neighborY >= height) continue;
+                if (!grid.isWalkable(grid.toIndex(windowX + neighborX, windowY + neighborY))) continue;
+
+                int neighbor = neighborX * stride + neighborY;
+                if (visited[neighbor] == generation) continue;
+
+                visited[neighbor] = generation;
+                distances[neighbor] = distances[current] + 1;
+                parent[neighbor] = current;
+                queue[tail++] = neighbor;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the distance from the source of the last search to the given tile of the same window.
+     *
+     * @return the distance, or {@link #INFINITY} if the tile hasn't been reached.
+     */
+    int getDistance(int tile) {
+        int index = toLocal(tile);
+        return (visited[index] == generation) ? distances[index] : INFINITY;
+    }
+
+    /**
+     * Returns the direction of the step from the given tile to its parent in the last search, i.e., one step towards the source.
+     *
+     * @return the index into {@link #DIRECTION_X} and {@link #DIRECTION_Y},
+     * or -1 if the tile is the source or hasn't been reached.
+     */
+    int getStepToSource(int tile) {
+        int index = toLocal(tile);
+        if (visited[index] != generation || parent[index] == -1) return -1;
+        int step = parent[index] - index;
+        if (step == stride) return 0;
+        if (step == -stride) return 1;
+        return (step == 1) ? 2 : 3;
+    }
+
+    /**
+     * Appends the path of the last search to the given tile (without its source) to the path.
+     */
+    void appendPath(int tile, IntArray path) {
+        int length = getDistance(tile);
+        int[] items = path.ensureCapacity(length);
+        int end = path.size + length;
+        for (int index = toLocal(tile), i = end - 1; i >= path.size; i--) {
+            items[i] = grid.toIndex(windowX + index / stride, windowY + index % stride);
+            index = parent[index];
+        }
+        path.size = end;
+    }
+
+    private int toLocal(int tile) {
+        return (grid.getX(tile) - windowX) * stride + (grid.getY(tile) - windowY);
+    }
+}
@@ -0,0 +1,295 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * An incremental planner based on D* Lite (Koenig and Likhachev) on a {@link NavigationGrid}. <br>
+ * The search runs backwards from the goals to the start, and its search tree is kept between two calls.
+ * When the start (the enemy) moves, the keys are corrected with the offset {@code km} instead of searching again.
+ * When a goal (the player) moves by a few tiles, it is handled like a change of edge costs:
+ * the old goal tile loses its cost of zero, the new one gets it, and only the tiles
+ * whose distance has actually changed (and that matter for the path of the start) are expanded again.
+ * <p>
+ * Unlike the other path finders, an instance belongs to a single start/goal pair that moves over time,
+ * e.g., one enemy chasing the player. If the goals jump too far, the planner simply starts over.
+ */
+public class DStarLitePathFinder implements PathFinder {
+    // right, left, up, down
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private static final int INFINITY = Integer.MAX_VALUE / 4; // small enough that INFINITY + a few never overflows
+    private static final int MAX_GOAL_SHIFT = 2; // in tiles; if a goal moves further, it is cheaper to start over
+    private static final int MAX_KEY_OFFSET = 1 << 20; // start over before the keys could overflow
+
+    private final NavigationGrid grid;
+    private final NodeHeap open;
+
+    private final int[] g; // the distance to the closest goal from the last expansion of every tile
+    private final int[] rhs; // the one-step lookahead of g, the tile is consistent if g == rhs
+    private final boolean[] isGoal;
+    private final IntArray goals; // the goals of the search tree
+    private final IntArray singleGoal; // reused for the single goal search
+
+    private int start = -1;
+    private int keyOffset; // km: the sum of the heuristic distances that the start has moved
+    private boolean initialized;
+    private int expandedNodes;
+
+    /**
+     * Constructs a D* Lite planner for the given grid.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     */
+    public DStarLitePathFinder(NavigationGrid grid) {
+        this.grid = grid;
+        this.open = new NodeHeap(grid.size());
+        this.g = new int[grid.size()];
+        this.rhs = new int[grid.size()];
+        this.isGoal = new boolean[grid.size()];
+        this.goals = new IntArray(8);
+        this.singleGoal = new IntArray(1);
+        this.initialized = false;
+    }
+
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        singleGoal.clear();
+        singleGoal.add(goal);
+        return findPath(start, singleGoal, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        path.clear();
+        expandedNodes = 0;
+        if (goals.isEmpty()) return false;
+
+        if (isStartingOver(goals)) {
+            reset(start, goals);
+        }
+        else {
+            moveStart(start);
+            moveGoals(goals);
+        }
+
+        computeShortestPath();
+        if (g[start] >= INFINITY) return false; // No path found
+
+        extractPath(path);
+        return true;
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Throws the search tree away, e.g., when the walkability of the grid has changed.
+     */
+    public void invalidate() {
+        initialized = false;
+    }
+
+    /**
+     * Checks if the next search towards the given goal starts over with a new search tree instead of repairing the current one.
+     * Starting over searches the whole area around the goal like a plain search,
+     * so the callers can schedule it (see {@link PathScheduler#acquire(PathRequest, int)}).
+     *
+     * @param goal The packed index of the goal tile.
+     * @return {@code true} if the next call of {@link #findPath(int, int, IntArray)} builds a new search tree.
+     */
+    public boolean isStartingOver(int goal) {
+        singleGoal.clear();
+        singleGoal.add(goal);
+        return isStartingOver(singleGoal);
+    }
+
+    /**
+     * Checks if the next search towards the given goals starts over with a new search tree instead of repairing the current one.
+     *
+     * @param goals The packed indices of the goal tiles.
+     * @return {@code true} if the next call of {@link #findPath(int, IntArray, IntArray)} builds a new search tree.
+     */
+    public boolean isStartingOver(IntArray goals) {
+        return !initialized || keyOffset > MAX_KEY_OFFSET || getGoalShift(goals) > MAX_GOAL_SHIFT;
+    }
+
+    /**
+     * Starts a new search tree from the given goals.
+     */
+    private void reset(int start, IntArray goals) {
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        for (int i = 0; i < this.goals.size; i++)
+            isGoal[this.goals.get(i)] = false;
+        open.clear();
+
+        this.start = start;
+        this.keyOffset = 0;
+        this.goals.clear();
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            this.goals.add(goal);
+            isGoal[goal] = true;
+            rhs[goal] = 0;
+            open.push(goal, key(goal));
+        }
+        initialized = true;
+    }
+
+    /**
+     * Moves the start. The keys in the open list were computed with the heuristic towards the old start,
+     * so instead of recomputing all of them, the distance between the two starts is added to the offset {@code km}.
+     * A start that isn't walkable is not kept up-to-date by the search, so its lookahead is computed here.
+     */
+    private void moveStart(int newStart) {
+        if (newStart == start) return;
+        keyOffset += heuristic(start, newStart);
+        start = newStart;
+        if (!grid.isWalkable(start))
+            updateVertex(start);
+    }
+
+    /**
+     * Replaces the goals of the search tree. Every goal that is dropped or added changes the lookahead of its tile,
+     * like a change of the cost of an edge to a virtual goal that is connected to all the goals.
+     */
+    private void moveGoals(IntArray newGoals) {
+        for (int i = 0; i < newGoals.size; i++) {
+            int goal = newGoals.get(i);
+            if (isGoal[goal]) continue;
+            isGoal[goal] = true;
+            updateVertex(goal);
+        }
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (newGoals.contains(goal)) continue;
+            isGoal[goal] = false;
+            updateVertex(goal);
+        }
+        goals.clear();
+        goals.addAll(newGoals);
+    }
+
+    /**
+     * Returns how far the new goals are from the current ones,
+     * i.e., the largest distance from a new goal to its closest current goal.
+     */
+    private int getGoalShift(IntArray newGoals) {
+        int shift = 0;
+        for (int i = 0; i < newGoals.size; i++) {
+            int min = Integer.MAX_VALUE;
+            for (int j = 0; j < goals.size; j++)
+                min = Math.min(min, heuristic(newGoals.get(i), goals.get(j)));
+            shift = Math.max(shift, min);
+        }
+        return shift;
+    }
+
+    private void computeShortestPath() {
+        while (!open.isEmpty() && (open.peekKey() < key(start) || rhs[start] != g[start])) {
+            int node = open.peek();
+            long oldKey = open.peekKey();
+            long newKey = key(node);
+            expandedNodes++;
+
+            if (oldKey < newKey) { // the key is outdated because the start has moved
+                open.update(node, newKey);
+            }
+            else if (g[node] > rhs[node]) { // the distance has become shorter
+                g[node] = rhs[node];
+                open.remove(node);
+                updatePredecessors(node);
+            }
+            else { // the distance has become longer
+                g[node] = INFINITY;
+                updateVertex(node);
+                updatePredecessors(node);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the lookahead of a tile and puts it into the open list if it is inconsistent.
+     */
+    private void updateVertex(int node) {
+        if (isGoal[node]) rhs[node] = 0;
+        else rhs[node] = getLookahead(node);
+
+        if (g[node] != rhs[node]) open.push(node, key(node));
+        else open.remove(node);
+    }
+
+    /**
+     * The shortest distance through any walkable neighbour, since every step onto a walkable tile costs one.
+     */
+    private int getLookahead(int node) {
+        int nodeX = grid.getX(node), nodeY = grid.getY(node);
+        int min = INFINITY;
+        for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+            int neighborX = nodeX + DIRECTION_X[dir];
+            int neighborY = nodeY + DIRECTION_Y[dir];
+            if (!grid.isWalkable(neighborX, neighborY)) continue;
+            min = Math.min(min, g[grid.toIndex(neighborX, neighborY)] + 1);
+        }
+        return Math.min(min, INFINITY);
+    }
+
+    /**
+     * Updates the tiles from which one can step onto the given tile.
+     * Tiles that aren't walkable can't be on a path, except for the start itself.
+     */
+    private void updatePredecessors(int node) {
+        if (!grid.isWalkable(node)) return; // no one can step onto this tile
+        int nodeX = grid.getX(node), nodeY = grid.getY(node);
+        for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+            int neighborX = nodeX + DIRECTION_X[dir];
+            int neighborY = nodeY + DIRECTION_Y[dir];
+            if (!grid.isInBounds(neighborX, neighborY)) continue;
+
+            int neighbor = grid.toIndex(neighborX, neighborY);
+            if (grid.isWalkable(neighbor) || neighbor == start)
+                updateVertex(neighbor);
+        }
+    }
+
+    /**
+     * Follows the smallest distances from the start down to a goal.
+     */
+    private void extractPath(IntArray path) {
+        int current = start;
+        path.add(current);
+        while (!isGoal[current] && path.size <= grid.size()) {
+            int currentX = grid.getX(current), currentY = grid.getY(current);
+            int next = -1;
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int neighborX = currentX + DIRECTION_X[dir];
+                int neighborY = currentY + DIRECTION_Y[dir];
+                if (!grid.isWalkable(neighborX, neighborY)) continue;
+
+                int neighbor = grid.toIndex(neighborX, neighborY);
+                if (next == -1 || g[neighbor] < g[next]) next = neighbor;
+            }
+            current = next;
+            path.add(current);
+        }
+    }
+
+    /**
+     * The key of a tile in the open list: first min(g, rhs) + heuristic + km, then min(g, rhs),
+     * packed into a single {@code long} so that both are compared at once.
+     */
+    private long key(int node) {
+        int distance = Math.min(g[node], rhs[node]);
+        return ((long) (distance + heuristic(node, start) + keyOffset) << 32) | distance;
+    }
+
+    private int heuristic(int from, int to) {
+        return Math.abs(grid.getX(from) - grid.getX(to)) + Math.abs(grid.getY(from) - grid.getY(to));
+    }
+}
@@ -0,0 +1,320 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * The abstract graph of hierarchical pathfinding (HPA*, Botea, Müller and Schaeffer) on a {@link NavigationGrid}. <br>
+ * The map is split into square clusters, and every walkable gap in the border between two clusters
+ * becomes an entrance with an abstract node on both sides. The abstract nodes of a cluster are connected with the
+ * length of the shortest path between them inside the cluster, which gives a small abstract graph of the whole map.
+ * <p>
+ * Besides the edges, the graph keeps for every abstract node the BFS tree of its cluster towards the node
+ * (two bits per tile), so a segment of an abstract path is turned into tiles by following the tree, without a search,
+ * and the distances from a few landmark nodes to all the others, which give the abstract A* a much better heuristic
+ * than the Manhattan distance in a maze (ALT, Goldberg and Harrelson).
+ * <p>
+ * Building the graph searches every cluster once per abstract node, so it is built once per grid (and walkability)
+ * and only read afterwards. It can be shared by any number of {@link HierarchicalPathFinder}s on different threads,
+ * which only keep the state of their own queries.
+ */
+public class HierarchicalGraph {
+    /** the width and height of a cluster in tiles */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    // an entrance at least this wide gets two transitions (at both ends) instead of one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+    // the number of landmarks of the heuristic, each one costs an int per abstract node
+    private static final int LANDMARK_COUNT = 16;
+    static final int INFINITY = ClusterSearch.INFINITY;
+
+    final NavigationGrid grid;
+    final int clusterSize;
+    final int clustersX, clustersY;
+
+    final int nodeCount;
+    final int[] nodeTile; // the packed tile of every abstract node
+    final int[] clusterNodeStart; // the abstract nodes of cluster c are clusterNodes[clusterNodeStart[c] .. clusterNodeStart[c + 1]]
+    final int[] clusterNodes;
+    final int[] edgeStart; // the edges of node n are edgeTarget/edgeCost[edgeStart[n] .. edgeStart[n + 1]]
+    final int[] edgeTarget;
+    final int[] edgeCost;
+    final int landmarkCount;
+    final int[] landmarkDistances; // the distance from landmark l to node n at [n * landmarkCount + l], or INFINITY
+
+    private final int treeWords; // the number of longs of the tree of one abstract node
+    private final long[] trees; // the step towards the node from every tile of its cluster, two bits per tile
+
+    /**
+     * Builds the abstract graph of the whole map with clusters of the default size.
+     *
+     * @param grid The {@link NavigationGrid} to search on. It must not change while the graph is in use.
+     */
+    public HierarchicalGraph(NavigationGrid grid) {
+        this(grid, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Builds the abstract graph of the whole map.
+     *
+     * @param grid        The {@link NavigationGrid} to search on. It must not change while the graph is in use.
+     * @param clusterSize The width and height of a cluster in tiles.
+     */
+    public HierarchicalGraph(NavigationGrid grid, int clusterSize) {
+        this.grid = grid;
+        this.clusterSize = clusterSize;
+        this.clustersX = (grid.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.getHeight() + clusterSize - 1) / clusterSize;
+
+        // FIRST, find the entrances between the clusters, which gives the abstract nodes and the edges between clusters
+        int[] tileToNode = new int[grid.size()];
+        Arrays.fill(tileToNode, -1);
+        IntArray tiles = new IntArray();
+        IntArray interEdges = new IntArray(); // pairs of abstract nodes
+        for (int clusterX = 0; clusterX < clustersX; clusterX++) {
+            for (int clusterY = 0; clusterY < clustersY; clusterY++) {
+                if (clusterX + 1 < clustersX) // the border to the cluster on the right
+                    findEntrances(clusterX * clusterSize + clusterSize - 1, clusterY * clusterSize, 0, 1,
+                            tileToNode, tiles, interEdges);
+                if (clusterY + 1 < clustersY) // the border to the cluster above
+                    findEntrances(clusterX * clusterSize, clusterY * clusterSize + clusterSize - 1, 1, 0,
+                            tileToNode, tiles, interEdges);
+            }
+        }
+        this.nodeCount = tiles.size;
+        this.nodeTile = tiles.toArray();
+
+        // SECOND, group the abstract nodes by their cluster
+        int clusterCount = clustersX * clustersY;
+        this.clusterNodeStart = new int[clusterCount + 1];
+        for (int node = 0; node < nodeCount; node++)
+            clusterNodeStart[getCluster(nodeTile[node]) + 1]++;
+        for (int cluster = 0; cluster < clusterCount; cluster++)
+            clusterNodeStart[cluster + 1] += clusterNodeStart[cluster];
+        this.clusterNodes = new int[nodeCount];
+        int[] fill = Arrays.copyOf(clusterNodeStart, clusterCount);
+        for (int node = 0; node < nodeCount; node++)
+            clusterNodes[fill[getCluster(nodeTile[node])]++] = node;
+
+        // THIRD, search the cluster from every abstract node, which connects it to the other nodes of the cluster
+        // with the length of the shortest path between them, and gives its tree
+        this.treeWords = (clusterSize * clusterSize * 2 + Long.SIZE - 1) / Long.SIZE;
+        this.trees = new long[nodeCount * treeWords];
+        ClusterSearch search = new ClusterSearch(grid, clusterSize);
+        IntArray[] edges = new IntArray[nodeCount]; // pairs of (target, cost)
+        for (int node = 0; node < nodeCount; node++)
+            edges[node] = new IntArray();
+        for (int i = 0; i < interEdges.size; i += 2) {
+            edges[interEdges.get(i)].add(interEdges.get(i + 1), 1);
+            edges[interEdges.get(i + 1)].add(interEdges.get(i), 1);
+        }
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+                int node = clusterNodes[i];
+                searchCluster(search, nodeTile[node], -1);
+                for (int j = clusterNodeStart[cluster]; j < clusterNodeStart[cluster + 1]; j++) {
+                    int other = clusterNodes[j];
+                    int distance = search.getDistance(nodeTile[other]);
+                    if (other != node && distance < INFINITY)
+                        edges[node].add(other, distance);
+                }
+                storeTree(search, node);
+            }
+        }
+
+        // FOURTH, flatten the edges into plain arrays
+        this.edgeStart = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++)
+            edgeStart[node + 1] = edgeStart[node] + edges[node].size / 2;
+        this.edgeTarget = new int[edgeStart[nodeCount]];
+        this.edgeCost = new int[edgeStart[nodeCount]];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = 0; i < edges[node].size; i += 2) {
+                edgeTarget[edgeStart[node] + i / 2] = edges[node].get(i);
+                edgeCost[edgeStart[node] + i / 2] = edges[node].get(i + 1);
+            }
+        }
+
+        // FINALLY, pick the landmarks and find their distances
+        this.landmarkCount = Math.min(LANDMARK_COUNT, nodeCount);
+        this.landmarkDistances = new int[nodeCount * landmarkCount];
+        findLandmarkDistances();
+    }
+
+    /**
+     * Finds the entrances along one border between two clusters: every run of tiles where both sides are walkable.
+     * A narrow entrance gets one transition in its middle, a wide one gets two, at both of its ends.
+     *
+     * @param x      The x-coordinate of the first tile of the border on the lower/left side.
+     * @param y      The y-coordinate of the first tile of the border on the lower/left side.
+     * @param alongX The direction along the border (1, 0 for a horizontal border, 0, 1 for a vertical one).
+     * @param alongY See {@code alongX}.
+     */
+    private void findEntrances(int x, int y, int alongX, int alongY, int[] tileToNode, IntArray tiles, IntArray interEdges) {
+        int acrossX = alongY, acrossY = alongX; // the direction over the border
+        int runStart = -1;
+        for (int i = 0; i <= clusterSize; i++) {
+            int tileX = x + i * alongX, tileY = y + i * alongY;
+            boolean isOpen = i < clusterSize && grid.isWalkable(tileX, tileY) && grid.isWalkable(tileX + acrossX, tileY + acrossY);
+            if (isOpen && runStart == -1) {
+                runStart = i;
+            }
+            else if (!isOpen && runStart != -1) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < WIDE_ENTRANCE) {
+                    addTransition(x + (runStart + runEnd) / 2 * alongX, y + (runStart + runEnd) / 2 * alongY,
+                            acrossX, acrossY, tileToNode, tiles, interEdges);
+                }
+                else {
+                    addTransition(x + runStart * alongX, y + runStart * alongY, acrossX, acrossY, tileToNode, tiles, interEdges);
+                    addTransition(x + runEnd * alongX, y + runEnd * alongY, acrossX, acrossY, tileToNode, tiles, interEdges);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int x, int y, int acrossX, int acrossY, int[] tileToNode, IntArray tiles, IntArray interEdges) {
+        int from = getOrAddNode(grid.toIndex(x, y), tileToNode, tiles);
+        int to = getOrAddNode(grid.toIndex(x + acrossX, y + acrossY), tileToNode, tiles);
+        interEdges.add(from, to);
+    }
+
+    private static int getOrAddNode(int tile, int[] tileToNode, IntArray tiles) {
+        if (tileToNode[tile] == -1) {
+            tileToNode[tile] = tiles.size;
+            tiles.add(tile);
+        }
+        return tileToNode[tile];
+    }
+
+    /**
+     * Stores the tree of the last search from the tile of the given node: the step towards the node from every reached tile.
+     */
+    private void storeTree(ClusterSearch search, int node) {
+        int cluster = getCluster(nodeTile[node]);
+        int clusterX = getClusterX(cluster), clusterY = getClusterY(cluster);
+        int endX = Math.min(clusterX + clusterSize, grid.getWidth()), endY = Math.min(clusterY + clusterSize, grid.getHeight());
+        for (int x = clusterX; x < endX; x++) {
+            for (int y = clusterY; y < endY; y++) {
+                int step = search.getStepToSource(grid.toIndex(x, y));
+                if (step == -1) continue;
+                int bit = ((x - clusterX) * clusterSize + (y - clusterY)) * 2;
+                trees[node * treeWords + bit / Long.SIZE] |= (long) step << (bit % Long.SIZE);
+            }
+        }
+    }
+
+    /**
+     * Appends the path from a tile to the tile of an abstract node in the same cluster (without the first tile) to the path,
+     * by following the tree of the node. The tile must be walkable and connected to the node inside the cluster.
+     */
+    void appendTreePath(int tile, int node, IntArray path) {
+        int cluster = getCluster(tile);
+        int clusterX = getClusterX(cluster), clusterY = getClusterY(cluster);
+        int x = grid.getX(tile), y = grid.getY(tile);
+        int target = nodeTile[node];
+        while (tile != target) {
+            int bit = ((x - clusterX) * clusterSize + (y - clusterY)) * 2;
+            int step = (int) (trees[node * treeWords + bit / Long.SIZE] >>> (bit % Long.SIZE)) & 3;
+            x += ClusterSearch.DIRECTION_X[step];
+            y += ClusterSearch.DIRECTION_Y[step];
+            tile = grid.toIndex(x, y);
+            path.add(tile);
+        }
+    }
+
+    /**
+     * Picks the landmarks one after another, each one the abstract node that is the farthest from the ones before
+     * (or not reachable from any of them, which gives every part of the map that is not connected its own landmark),
+     * and finds the distances from every landmark to all the abstract nodes with Dijkstra's algorithm.
+     * The distances of a node are stored next to each other, since the heuristic reads all of them at once.
+     */
+    private void findLandmarkDistances() {
+        if (landmarkCount == 0) return;
+
+        NodeHeap open = new NodeHeap(nodeCount);
+        int[] distances = new int[nodeCount];
+        int[] closest = new int[nodeCount]; // the distance to the closest landmark so far
+        findDistances(0, open, distances); // the first landmark is the farthest node from an arbitrary one
+        int landmark = farthest(distances);
+        Arrays.fill(closest, INFINITY);
+        for (int i = 0; i < landmarkCount; i++) {
+            findDistances(landmark, open, distances);
+            for (int node = 0; node < nodeCount; node++) {
+                landmarkDistances[node * landmarkCount + i] = distances[node];
+                closest[node] = Math.min(closest[node], distances[node]);
+            }
+            landmark = farthest(closest);
+        }
+    }
+
+    private void findDistances(int source, NodeHeap open, int[] distances) {
+        Arrays.fill(distances, INFINITY);
+        distances[source] = 0;
+        open.push(source, 0);
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            for (int i = edgeStart[current]; i < edgeStart[current + 1]; i++) {
+                int neighbor = edgeTarget[i];
+                int distance = distances[current] + edgeCost[i];
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    open.push(neighbor, distance);
+                }
+            }
+        }
+    }
+
+    private static int farthest(int[] distances) {
+        int farthest = 0;
+        for (int node = 1; node < distances.length; node++) {
+            if (distances[node] > distances[farthest]) farthest = node;
+        }
+        return farthest;
+    }
+
+    int getCluster(int tile) {
+        return (grid.getX(tile) / clusterSize) * clustersY + grid.getY(tile) / clusterSize;
+    }
+
+    int getClusterX(int cluster) {
+        return (cluster / clustersY) * clusterSize;
+    }
+
+    int getClusterY(int cluster) {
+        return (cluster % clustersY) * clusterSize;
+    }
+
+    /**
+     * Runs a BFS from the given tile that stays inside the tile's cluster, and stops early once the target is reached.
+     *
+     * @param source The packed index of the source tile, which doesn't have to be walkable.
+     * @param target The packed index of the target tile, or -1 to reach all the tiles of the cluster.
+     */
+    void searchCluster(ClusterSearch search, int source, int target) {
+        int cluster = getCluster(source);
+        int clusterX = getClusterX(cluster), clusterY = getClusterY(cluster);
+        search.search(source, target, null, clusterX, clusterY,
+                Math.min(clusterSize, grid.getWidth() - clusterX), Math.min(clusterSize, grid.getHeight() - clusterY));
+    }
+
+    /**
+     * Returns the grid that the graph has been built on.
+     *
+     * @return the {@link NavigationGrid}.
+     */
+    public NavigationGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the number of abstract nodes, i.e., the number of transitions between clusters times two.
+     *
+     * @return the number of abstract nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
@@ -0,0 +1,344 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinding (HPA*, Botea, Müller and Schaeffer) on the abstract graph of a {@link HierarchicalGraph}, for large maps. <br>
+ * A query connects the start and the goal to the abstract nodes of their clusters, runs A* on the abstract graph,
+ * and then turns the abstract path into tiles by following the trees of its nodes.
+ * So the cost of a query grows with the length of the path, not with the area of the map.
+ * The paths are close to the shortest ones, but (unlike the other path finders) not always the shortest.
+ * A goal that is at most one cluster away is first searched directly with a BFS around the start,
+ * since the detour over the entrances would be the largest for such short paths.
+ * <p>
+ * The graph is only read, so the path finders of several threads can share it, each one with its own state of the queries.
+ */
+public class HierarchicalPathFinder implements PathFinder {
+    private static final int INFINITY = HierarchicalGraph.INFINITY;
+
+    private final HierarchicalGraph graph;
+    private final NavigationGrid grid;
+    private final int nodeCount;
+
+    // the state of the abstract A*, the start is node `nodeCount` and the goal is node `nodeCount + 1`
+    private final NodeHeap open;
+    private final int[] costs;
+    private final int[] parent;
+    private final int[] seen;
+    private final int[] closed;
+    private final int[] goalCost; // the cost from an abstract node in a goal cluster to its closest goal
+    private final int[] goalTarget; // that closest goal tile
+    private final int[] goalMarks; // an abstract node has a goal cost in the current query if goalMarks[node] == generation
+    private final int[] landmarkToGoal; // the distance from every landmark to the goals of the current query, or INFINITY
+    private boolean isSingleGoal; // whether the landmarks can also bound the distance from behind the goal
+    private int generation;
+    private int startCost; // the cost from the start directly to a goal in its own cluster, or INFINITY
+    private int startTarget; // that goal tile
+    private final IntArray startEdges; // pairs of (abstract node, cost) from the start
+    private final IntArray abstractPath;
+    private final IntArray goals; // the goals of the current query, for the heuristic
+    private final IntArray singleGoal; // reused for the single goal search
+    private int expandedNodes;
+
+    private final ClusterSearch search;
+
+    /**
+     * Constructs a hierarchical path finder that builds its own abstract graph with clusters of the default size.
+     * Several path finders on the same grid should rather share one graph, see {@link #HierarchicalPathFinder(HierarchicalGraph)}.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     */
+    public HierarchicalPathFinder(NavigationGrid grid) {
+        this(new HierarchicalGraph(grid));
+    }
+
+    /**
+     * Constructs a hierarchical path finder on an abstract graph, which only allocates the state of its queries.
+     *
+     * @param graph The {@link HierarchicalGraph} of the grid to search on.
+     */
+    public HierarchicalPathFinder(HierarchicalGraph graph) {
+        this.graph = graph;
+        this.grid = graph.grid;
+        this.nodeCount = graph.nodeCount;
+
+        this.open = new NodeHeap(nodeCount + 2);
+        this.costs = new int[nodeCount + 2];
+        this.parent = new int[nodeCount + 2];
+        this.seen = new int[nodeCount + 2];
+        this.closed = new int[nodeCount + 2];
+        this.goalCost = new int[nodeCount];
+        this.goalTarget = new int[nodeCount];
+        this.goalMarks = new int[nodeCount];
+        this.landmarkToGoal = new int[graph.landmarkCount];
+        this.startEdges = new IntArray();
+        this.abstractPath = new IntArray();
+        this.goals = new IntArray(8);
+        this.singleGoal = new IntArray(1);
+        this.search = new ClusterSearch(grid, graph.clusterSize);
+    }
+
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        singleGoal.clear();
+        singleGoal.add(goal);
+        return findPath(start, singleGoal, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        path.clear();
+        expandedNodes = 0;
+        nextGeneration();
+        this.goals.clear();
+        for (int i = 0; i < goals.size; i++) {
+            // a goal in another region than a walkable start can't be reached, no need to search for it
+            int goal = goals.get(i);
+            if (goal == start || !grid.isWalkable(start) || grid.getRegionCount() == 0 ||
+                    grid.getRegion(goal) == grid.getRegion(start))
+                this.goals.add(goal);
+        }
+        if (this.goals.isEmpty()) return false;
+        if (this.goals.contains(start)) {
+            path.add(start);
+            return true;
+        }
+
+        if (manhattan(start) <= graph.clusterSize && searchNearby(start, path)) return true;
+
+        connectStart(start);
+        connectGoals();
+        if (!searchAbstractGraph(start)) return false; // No path found
+
+        refinePath(start, path);
+        return true;
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Searches the goals with a BFS in the window of one cluster size around the start.
+     * The found path is the shortest one, unless the shortest one leaves that window.
+     *
+     * @return {@code true} if a goal has been found in the window.
+     */
+    private boolean searchNearby(int start, IntArray path) {
+        int clusterSize = graph.clusterSize;
+        int windowX = Math.max(0, grid.getX(start) - clusterSize);
+        int windowY = Math.max(0, grid.getY(start) - clusterSize);
+        int width = Math.min(grid.getX(start) + clusterSize + 1, grid.getWidth()) - windowX;
+        int height = Math.min(grid.getY(start) + clusterSize + 1, grid.getHeight()) - windowY;
+        int goal = search.search(start, -1, goals, windowX, windowY, width, height);
+        if (goal == -1) return false;
+
+        path.add(start);
+        search.appendPath(goal, path);
+        return true;
+    }
+
+    /**
+     * Connects the start to the abstract nodes of its cluster, and directly to the goals in the same cluster.
+     */
+    private void connectStart(int start) {
+        startEdges.clear();
+        startCost = INFINITY;
+        int cluster = graph.getCluster(start);
+        graph.searchCluster(search, start, -1);
+        for (int i = graph.clusterNodeStart[cluster]; i < graph.clusterNodeStart[cluster + 1]; i++) {
+            int node = graph.clusterNodes[i];
+            int distance = search.getDistance(graph.nodeTile[node]);
+            if (distance < INFINITY) startEdges.add(node, distance);
+        }
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (graph.getCluster(goal) != cluster) continue;
+            int distance = search.getDistance(goal);
+            if (distance < startCost) {
+                startCost = distance;
+                startTarget = goal;
+            }
+        }
+    }
+
+    /**
+     * Connects the abstract nodes in the clusters of the goals to their closest goal,
+     * and finds the distances from the landmarks to the goals over these nodes.
+     */
+    private void connectGoals() {
+        Arrays.fill(landmarkToGoal, INFINITY);
+        isSingleGoal = goals.size == 1;
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (!grid.isWalkable(goal)) continue; // can't step onto it
+            int cluster = graph.getCluster(goal);
+            graph.searchCluster(search, goal, -1); // every step costs one, so the distances from the goal are the ones to the goal
+            for (int j = graph.clusterNodeStart[cluster]; j < graph.clusterNodeStart[cluster + 1]; j++) {
+                int node = graph.clusterNodes[j];
+                int distance = search.getDistance(graph.nodeTile[node]);
+                if (distance >= INFINITY) continue;
+                if (goalMarks[node] != generation || distance < goalCost[node]) {
+                    goalMarks[node] = generation;
+                    goalCost[node] = distance;
+                    goalTarget[node] = goal;
+                }
+            }
+        }
+        for (int i = 0; i < goals.size; i++) {
+            int cluster = graph.getCluster(goals.get(i));
+            for (int j = graph.clusterNodeStart[cluster]; j < graph.clusterNodeStart[cluster + 1]; j++) {
+                int node = graph.clusterNodes[j];
+                if (goalMarks[node] != generation) continue;
+                for (int landmark = 0; landmark < landmarkToGoal.length; landmark++) {
+                    int distance = graph.landmarkDistances[node * landmarkToGoal.length + landmark] + goalCost[node];
+                    if (distance < landmarkToGoal[landmark]) landmarkToGoal[landmark] = distance;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs A* on the abstract graph from the start node to the goal node,
+     * and writes the abstract nodes of the path into {@link #abstractPath}.
+     */
+    private boolean searchAbstractGraph(int start) {
+        int startNode = nodeCount, goalNode = nodeCount + 1;
+        costs[startNode] = 0;
+        seen[startNode] = generation;
+        open.push(startNode, key(0, manhattan(start)));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            closed[current] = generation;
+            expandedNodes++;
+
+            if (current == goalNode) {
+                open.clear();
+                abstractPath.clear();
+                for (int node = goalNode; node != startNode; node = parent[node])
+                    abstractPath.add(node);
+                abstractPath.add(startNode);
+                abstractPath.reverse();
+                return true;
+            }
+
+            if (current == startNode) {
+                for (int i = 0; i < startEdges.size; i += 2)
+                    relax(current, startEdges.get(i), startEdges.get(i + 1));
+                if (startCost < INFINITY)
+                    relax(current, goalNode, startCost);
+                continue;
+            }
+
+            for (int i = graph.edgeStart[current]; i < graph.edgeStart[current + 1]; i++)
+                relax(current, graph.edgeTarget[i], graph.edgeCost[i]);
+            if (goalMarks[current] == generation)
+                relax(current, goalNode, goalCost[current]);
+        }
+        return false;
+    }
+
+    private void relax(int from, int to, int cost) {
+        if (closed[to] == generation) return;
+        int nextCost = costs[from] + cost;
+        if (seen[to] == generation && costs[to] <= nextCost) return;
+
+        costs[to] = nextCost;
+        seen[to] = generation;
+        parent[to] = from;
+        int heuristic = (to == nodeCount + 1) ? 0 : heuristic(to);
+        open.push(to, key(nextCost, heuristic));
+    }
+
+    /**
+     * Turns the abstract path into tiles: a step between two clusters is a single step,
+     * a segment to an abstract node follows the tree of the node,
+     * and only the segment to the goal (and from a start that isn't walkable) is searched again inside its cluster.
+     */
+    private void refinePath(int start, IntArray path) {
+        path.add(start);
+        int previousTile = start;
+        for (int i = 1; i < abstractPath.size; i++) {
+            int node = abstractPath.get(i);
+            boolean isGoal = node == nodeCount + 1;
+            int tile;
+            if (isGoal)
+                tile = (abstractPath.get(i - 1) == nodeCount) ? startTarget : goalTarget[abstractPath.get(i - 1)];
+            else
+                tile = graph.nodeTile[node];
+
+            if (tile == previousTile) continue;
+            if (graph.getCluster(tile) != graph.getCluster(previousTile)) {
+                path.add(tile); // a transition between two clusters, the tiles are neighbours
+            }
+            else if (!isGoal && grid.isWalkable(previousTile)) {
+                graph.appendTreePath(previousTile, node, path);
+            }
+            else {
+                graph.searchCluster(search, previousTile, tile);
+                search.appendPath(tile, path);
+            }
+            previousTile = tile;
+        }
+    }
+
+    /**
+     * The Manhattan distance to the closest goal of the current query.
+     */
+    private int manhattan(int tile) {
+        int tileX = grid.getX(tile), tileY = grid.getY(tile);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            min = Math.min(min, Math.abs(tileX - grid.getX(goal)) + Math.abs(tileY - grid.getY(goal)));
+        }
+        return min;
+    }
+
+    /**
+     * The heuristic of an abstract node: the largest lower bound of the Manhattan distance and the landmarks.
+     * By the triangle inequality, the distance to the goals is at least {@code d(L, goal) - d(L, node)} for every landmark L.
+     * With a single goal, the path between two abstract nodes of its cluster over the goal also gives
+     * {@code d(L, node) - d(L, goal)}, which doesn't hold for several goals, since each node is connected to its closest one.
+     */
+    private int heuristic(int node) {
+        int heuristic = manhattan(graph.nodeTile[node]);
+        int[] landmarkDistances = graph.landmarkDistances;
+        int offset = node * landmarkToGoal.length;
+        for (int landmark = 0; landmark < landmarkToGoal.length; landmark++) {
+            int toNode = landmarkDistances[offset + landmark], toGoal = landmarkToGoal[landmark];
+            if (toNode >= INFINITY || toGoal >= INFINITY) continue;
+            int bound = isSingleGoal ? Math.abs(toGoal - toNode) : toGoal - toNode;
+            if (bound > heuristic) heuristic = bound;
+        }
+        return heuristic;
+    }
+
+    private static long key(int cost, int heuristic) {
+        return ((long) (cost + heuristic) << 32) | heuristic;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == 0) { // overflow, every old mark could now look like a current one
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(goalMarks, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Returns the abstract graph that this path finder searches on.
+     *
+     * @return the {@link HierarchicalGraph}.
+     */
+    public HierarchicalGraph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,223 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.Arrays;
+
+/**
+ * Jump Point Search (JPS) on a {@link NavigationGrid}, for horizontal and vertical moves only. <br>
+ * It is A* with the Manhattan distance, but instead of adding every neighbour to the open list,
+ * it "jumps" in a straight line until it reaches the goal or a tile where the path could turn
+ * (a tile with a forced neighbour). Only those jump points are expanded,
+ * which saves most of the work in open areas like the city level.
+ * <p>
+ * The found path is expanded back to every single tile, so it can be used exactly like the one of a BFS.
+ */
+public class JumpPointPathFinder implements PathFinder {
+    // right, left, up, down
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final NavigationGrid grid;
+    private final NodeHeap open;
+
+    private final int[] costs; // the cost from the start (g) of every seen jump point
+    private final int[] parent; // the jump point that we came from, for every seen jump point
+    private final int[] seen; // a tile has a cost in the current search if seen[tile] == generation
+    private final int[] closed; // a tile is expanded in the current search if closed[tile] == generation
+    private final int[] goalMarks; // a tile is a goal of the current search if goalMarks[tile] == generation
+    private final IntArray goals; // the goals of the current search, for the heuristic
+    private int generation;
+    private int expandedNodes;
+
+    /**
+     * Constructs a Jump Point Search for the given grid.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     */
+    public JumpPointPathFinder(NavigationGrid grid) {
+        this.grid = grid;
+        this.open = new NodeHeap(grid.size());
+        this.costs = new int[grid.size()];
+        this.parent = new int[grid.size()];
+        this.seen = new int[grid.size()];
+        this.closed = new int[grid.size()];
+        this.goalMarks = new int[grid.size()];
+        this.goals = new IntArray();
+        this.generation = 0;
+    }
+
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        nextGeneration();
+        goals.clear();
+        goals.add(goal);
+        goalMarks[goal] = generation;
+        return search(start, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        nextGeneration();
+        this.goals.clear();
+        this.goals.addAll(goals);
+        for (int i = 0; i < goals.size; i++)
+            goalMarks[goals.get(i)] = generation;
+        return search(start, path);
+    }
+
+    /**
+     * Runs the Jump Point Search from the start tile until it expands any of the tiles that are marked as a goal.
+     * Every goal tile is a jump point, so a jump never skips over one.
+     */
+    private boolean search(int start, IntArray path) {
+        path.clear();
+        expandedNodes = 0;
+        if (goals.isEmpty()) return false;
+
+        costs[start] = 0;
+        seen[start] = generation;
+        parent[start] = start;
+        open.push(start, key(0, heuristic(start)));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            closed[current] = generation;
+            expandedNodes++;
+
+            if (goalMarks[current] == generation) {
+                open.clear();
+                reconstructPath(start, current, path);
+                return true;
+            }
+
+            int currentX = grid.getX(current);
+            int currentY = grid.getY(current);
+            // the direction we came from, (0, 0) for the start tile
+            int dx = Integer.signum(currentX - grid.getX(parent[current]));
+            int dy = Integer.signum(currentY - grid.getY(parent[current]));
+
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int stepX = DIRECTION_X[dir], stepY = DIRECTION_Y[dir];
+                if (isPruned(dx, dy, stepX, stepY)) continue;
+
+                int jumpPoint = jump(currentX + stepX, currentY + stepY, stepX, stepY);
+                if (jumpPoint == -1 || closed[jumpPoint] == generation) continue;
+
+                int nextCost = costs[current] + Math.abs(grid.getX(jumpPoint) - currentX) + Math.abs(grid.getY(jumpPoint) - currentY);
+                if (seen[jumpPoint] == generation && costs[jumpPoint] <= nextCost) continue;
+
+                costs[jumpPoint] = nextCost;
+                seen[jumpPoint] = generation;
+                parent[jumpPoint] = current;
+                open.push(jumpPoint, key(nextCost, heuristic(jumpPoint)));
+            }
+        }
+
+        return false; // No path found
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Checks if a direction can be skipped when coming from the direction (dx, dy).
+     * Going back is never needed, and the start tile (where dx and dy are both 0) tries every direction.
+     * When moving horizontally, the path goes on straight or turns up or down,
+     * and the same holds for moving vertically and turning left or right.
+     */
+    private static boolean isPruned(int dx, int dy, int stepX, int stepY) {
+        if (dx == 0 && dy == 0) return false; // the start tile
+        return stepX == -dx && stepY == -dy; // going back
+    }
+
+    /**
+     * Moves from the given tile in a straight line in the direction (dx, dy)
+     * until it finds a jump point, i.e., a goal or a tile where the shortest path could turn.
+     *
+     * @param x  The x-coordinate of the first tile of the jump.
+     * @param y  The y-coordinate of the first tile of the jump.
+     * @param dx The horizontal direction of the jump (-1, 0 or 1).
+     * @param dy The vertical direction of the jump (-1, 0 or 1).
+     * @return The packed index of the jump point, or -1 if it runs into a wall without finding one.
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            if (!grid.isWalkable(x, y)) return -1;
+            if (goalMarks[grid.toIndex(x, y)] == generation) return grid.toIndex(x, y);
+
+            if (dx != 0) { // moving horizontally
+                // forced neighbour: a tile above or below that can't be reached from behind
+                if ((grid.isWalkable(x, y - 1) && !grid.isWalkable(x - dx, y - 1)) ||
+                        (grid.isWalkable(x, y + 1) && !grid.isWalkable(x - dx, y + 1)))
+                    return grid.toIndex(x, y);
+            }
+            else { // moving vertically
+                // forced neighbour: a tile on the left or right that can't be reached from behind
+                if ((grid.isWalkable(x - 1, y) && !grid.isWalkable(x - 1, y - dy)) ||
+                        (grid.isWalkable(x + 1, y) && !grid.isWalkable(x + 1, y - dy)))
+                    return grid.toIndex(x, y);
+                // when moving vertically, there must not be a horizontal jump point on the way that we skip over
+                if (jump(x + 1, y, 1, 0) != -1 || jump(x - 1, y, -1, 0) != -1)
+                    return grid.toIndex(x, y);
+            }
+
+            x += dx;
+            y += dy;
+        }
+    }
+
+    /**
+     * The Manhattan distance to the closest goal, which still never overestimates with several goals.
+     */
+    private int heuristic(int node) {
+        int nodeX = grid.getX(node), nodeY = grid.getY(node);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            min = Math.min(min, Math.abs(nodeX - grid.getX(goal)) + Math.abs(nodeY - grid.getY(goal)));
+        }
+        return min;
+    }
+
+    /**
+     * Orders the open tiles by f = g + h, and among equal f the one closer to the goal first.
+     */
+    private static long key(int cost, int heuristic) {
+        return ((long) (cost + heuristic) << 32) | heuristic;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == 0) { // overflow, every old mark could now look like a current one
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(goalMarks, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Follows the jump points back from the goal to the start,
+     * and writes every tile on the straight lines between them into the array (from the start to the goal).
+     */
+    private void reconstructPath(int start, int goal, IntArray path) {
+        int[] items = path.setSize(costs[goal] + 1); // every step costs one, so the cost is the number of steps
+        int i = costs[goal];
+        items[i] = goal;
+        for (int current = goal; current != start; current = parent[current]) {
+            int previous = parent[current];
+            int x = grid.getX(current), y = grid.getY(current);
+            int stepX = Integer.signum(grid.getX(previous) - x);
+            int stepY = Integer.signum(grid.getY(previous) - y);
+            while (x != grid.getX(previous) || y != grid.getY(previous)) {
+                x += stepX;
+                y += stepY;
+                items[--i] = grid.toIndex(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of packed tile indices, ordered by a {@code long} key. <br>
+ * Every tile can be in the heap at most once, and its key can be changed while it is in the heap.
+ * All arrays are sized for the whole map once, so pushing and popping never allocates.
+ */
+class NodeHeap {
+    private final int[] heap; // the tiles in heap order
+    private final long[] keys; // the key of every tile, indexed by the tile
+    private final int[] positions; // the position of every tile in `heap`, or -1 if it isn't in the heap
+    private int size;
+
+    /**
+     * Constructs an empty heap for a map with the given number of tiles.
+     *
+     * @param capacity The number of tiles of the map.
+     */
+    NodeHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int node) {
+        return positions[node] != -1;
+    }
+
+    /**
+     * Removes all the tiles from the heap. It only has to touch the tiles that are still in it.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++)
+            positions[heap[i]] = -1;
+        size = 0;
+    }
+
+    /**
+     * Adds the tile to the heap, or changes its key if it is already in it.
+     *
+     * @param node The packed index of the tile.
+     * @param key  The key of the tile, the smallest key is popped first.
+     */
+    void push(int node, long key) {
+        if (contains(node)) {
+            update(node, key);
+            return;
+        }
+        keys[node] = key;
+        heap[size] = node;
+        positions[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Changes the key of a tile that is in the heap.
+     *
+     * @param node The packed index of the tile.
+     * @param key  The new key of the tile.
+     */
+    void update(int node, long key) {
+        long oldKey = keys[node];
+        keys[node] = key;
+        if (key < oldKey) siftUp(positions[node]);
+        else siftDown(positions[node]);
+    }
+
+    /**
+     * Removes the tile with the smallest key from the heap.
+     *
+     * @return the packed index of the removed tile.
+     */
+    int pop() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Removes the given tile from the heap, if it is in it.
+     *
+     * @param node The packed index of the tile.
+     */
+    void remove(int node) {
+        if (contains(node)) removeAt(positions[node]);
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    long peekKey() {
+        return keys[heap[0]];
+    }
+
+    private void removeAt(int position) {
+        int node = heap[position];
+        positions[node] = -1;
+        size--;
+        if (position == size) return;
+
+        int last = heap[size];
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        long key = keys[node];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) break;
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        long key = keys[node];
+        int half = size >>> 1;
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            int child = heap[childPosition];
+            int rightPosition = childPosition + 1;
+            if (rightPosition < size && keys[heap[rightPosition]] < keys[child]) {
+                childPosition = rightPosition;
+                child = heap[childPosition];
+            }
+            if (key <= keys[child]) break;
+            heap[position] = child;
+            positions[child] = position;
+            position = childPosition;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,176 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+/**
+ * A least-recently-used cache of found paths, keyed by the packed start tile and goal tile(s). <br>
+ * Several enemies standing on the same tile ask for the same path, so only the first one has to search.
+ * <p>
+ * The paths belong to one version of the grid that they were searched on (see {@link NavigationGrid#getVersion()}),
+ * which is the snapshot of the {@link PathRequestQueue}. When the queue takes a new snapshot, it moves the cache
+ * to the new version with {@link #setGridVersion(int)}, which drops all the paths, and the results of the searches
+ * that were still running on the old snapshot are not put back in.
+ * <p>
+ * The entries are kept in a doubly linked list in the order of their use, and an evicted (or dropped) entry
+ * is reused for the next path, so the cache doesn't allocate anything once it is full.
+ * It is shared by the render thread and the pathfinding workers, so all its methods are synchronized.
+ * The searches themselves run outside the lock.
+ */
+public class PathCache {
+    private final int capacity;
+    private final LongMap<Entry> entries;
+    private final Entry eldest; // the sentinel of the list: eldest.next is the least recently used, eldest.previous the most recently used
+    private final Array<Entry> freeEntries; // dropped by an invalidation, reused before new ones are allocated
+    private int gridVersion;
+
+    private long hits, misses;
+
+    /**
+     * A cached search result. The goals are stored as well,
+     * since the key of a search with several goals is only a hash of them.
+     */
+    private static class Entry {
+        long key;
+        int start;
+        final IntArray goals = new IntArray();
+        final IntArray path = new IntArray(); // empty if no path has been found
+        Entry previous, next;
+
+        void set(long key, int start, IntArray goals, IntArray path) {
+            this.key = key;
+            this.start = start;
+            this.goals.clear();
+            this.goals.addAll(goals);
+            this.path.clear();
+            this.path.addAll(path);
+        }
+    }
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity    The maximum number of cached paths.
+     * @param gridVersion The version of the grid that the paths are searched on.
+     */
+    public PathCache(int capacity, int gridVersion) {
+        this.capacity = capacity;
+        this.gridVersion = gridVersion;
+        this.entries = new LongMap<>(capacity * 2);
+        this.freeEntries = new Array<>(false, capacity);
+        this.eldest = new Entry();
+        eldest.previous = eldest;
+        eldest.next = eldest;
+    }
+
+    /**
+     * Looks up the path of a search and copies it into the given array.
+     *
+     * @param gridVersion The version of the grid that the caller searches on.
+     * @param start       The packed index of the start tile.
+     * @param goals       The packed indices of the goal tiles.
+     * @param path        The array to copy the cached path to, if there is one.
+     * @return {@code true} if the search is cached (even if it has found no path), {@code false} otherwise.
+     */
+    public synchronized boolean get(int gridVersion, int start, IntArray goals, IntArray path) {
+        Entry entry = (gridVersion == this.gridVersion) ? entries.get(key(start, goals)) : null;
+        if (entry == null || entry.start != start || !entry.goals.equals(goals)) {
+            misses++;
+            return false;
+        }
+        hits++;
+        moveToMostRecent(entry);
+        path.clear();
+        path.addAll(entry.path);
+        return true;
+    }
+
+    /**
+     * Stores the result of a search, unless it has been searched on an outdated version of the grid.
+     *
+     * @param gridVersion The version of the grid that the path has been searched on.
+     * @param start       The packed index of the start tile.
+     * @param goals       The packed indices of the goal tiles.
+     * @param path        The found path, or an empty array if no path has been found.
+     */
+    public synchronized void put(int gridVersion, int start, IntArray goals, IntArray path) {
+        if (gridVersion != this.gridVersion) return; // the walkability has changed since the search started
+
+        long key = key(start, goals);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size >= capacity) { // reuse the least recently used entry
+                entry = eldest.next;
+                entries.remove(entry.key);
+                unlink(entry);
+            }
+            else {
+                entry = freeEntries.isEmpty() ? new Entry() : freeEntries.pop();
+            }
+            entries.put(key, entry);
+        }
+        else {
+            unlink(entry);
+        }
+        entry.set(key, start, goals, path);
+        linkAsMostRecent(entry);
+    }
+
+    /**
+     * Moves the cache to a new version of the grid, and drops all the cached paths if it has changed.
+     *
+     * @param gridVersion The version of the grid that the paths are searched on from now on.
+     */
+    public synchronized void setGridVersion(int gridVersion) {
+        if (gridVersion == this.gridVersion) return;
+        this.gridVersion = gridVersion;
+        invalidate();
+    }
+
+    /**
+     * Drops all the cached paths.
+     */
+    public synchronized void invalidate() {
+        for (Entry entry = eldest.next; entry != eldest; entry = entry.next)
+            freeEntries.add(entry);
+        entries.clear();
+        eldest.previous = eldest;
+        eldest.next = eldest;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private void moveToMostRecent(Entry entry) {
+        unlink(entry);
+        linkAsMostRecent(entry);
+    }
+
+    private void unlink(Entry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+    }
+
+    private void linkAsMostRecent(Entry entry) {
+        entry.previous = eldest.previous;
+        entry.next = eldest;
+        eldest.previous.next = entry;
+        eldest.previous = entry;
+    }
+
+    /**
+     * Packs the start tile and the goal tiles into a key: the start in the upper half,
+     * and the goal itself (or a hash of all the goals) in the lower half.
+     */
+    private static long key(int start, IntArray goals) {
+        int goal = (goals.size == 1) ? goals.get(0) : goals.hashCode();
+        return ((long) start << 32) | (goal & 0xFFFFFFFFL);
+    }
+}
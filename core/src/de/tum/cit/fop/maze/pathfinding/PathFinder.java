@@ -0,0 +1,45 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A pathfinding algorithm on a {@link de.tum.cit.fop.maze.util.NavigationGrid}. <br>
+ * The walkability grid is given to the implementation when it is created,
+ * so that it can size its working arrays once and reuse them for every search.
+ * Tiles are addressed by their packed index (see {@link de.tum.cit.fop.maze.util.NavigationGrid#toIndex(int, int)}).
+ */
+public interface PathFinder {
+
+    /**
+     * Finds a shortest path between two tiles, moving only horizontally and vertically.
+     * The start tile itself doesn't have to be walkable, but all the other tiles on the path do.
+     *
+     * @param start The packed index of the start tile.
+     * @param goal  The packed index of the goal tile.
+     * @param path  The array to write the path to, from the start tile to the goal tile (both included).
+     *              It is cleared first and stays empty if no path is found.
+     * @return {@code true} if a path has been found, {@code false} otherwise.
+     */
+    boolean findPath(int start, int goal, IntArray path);
+
+    /**
+     * Finds a shortest path from the start tile to the closest of several goal tiles, in a single search.
+     * The search stops as soon as it reaches any of the goals,
+     * which is much cheaper than one search for every goal.
+     *
+     * @param start The packed index of the start tile.
+     * @param goals The packed indices of the goal tiles.
+     * @param path  The array to write the path to, from the start tile to the reached goal tile (both included).
+     *              It is cleared first and stays empty if no path is found.
+     * @return {@code true} if a path to any of the goals has been found, {@code false} otherwise.
+     */
+    boolean findPath(int start, IntArray goals, IntArray path);
+
+    /**
+     * Returns how many nodes the last search has expanded,
+     * which tells how much work the search has done independent of the machine.
+     *
+     * @return the number of expanded nodes of the last search.
+     */
+    int getExpandedNodes();
+}
@@ -0,0 +1,66 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import de.tum.cit.fop.maze.util.GridSearch;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.function.Supplier;
+
+/**
+ * The pathfinding algorithms that a level can choose from
+ * with the key {@code pathFinder} in its ".properties" file, e.g., {@code pathFinder=jps}.
+ */
+public enum PathFinderType {
+    // Breadth-First Search, explores the whole reachable area in the worst case. The default one.
+    BFS,
+    // A* with the Manhattan distance as the heuristic
+    ASTAR,
+    // Jump Point Search, A* that skips over the tiles in open areas
+    JPS,
+    // hierarchical pathfinding (HPA*) over clusters of tiles, for large maps; the paths are nearly the shortest ones
+    HPA;
+
+    /**
+     * Creates a new instance of this pathfinding algorithm for the given grid.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     * @return a new {@link PathFinder}.
+     */
+    public PathFinder create(NavigationGrid grid) {
+        return switch (this) {
+            case BFS -> new GridSearch(grid);
+            case ASTAR -> new AStarPathFinder(grid);
+            case JPS -> new JumpPointPathFinder(grid);
+            case HPA -> new HierarchicalPathFinder(grid);
+        };
+    }
+
+    /**
+     * Prepares the work that all the path finders of this algorithm on the given grid can share,
+     * e.g., the abstract graph of {@link #HPA}, and returns a factory of path finders that share it. <br>
+     * The grid must not change while the path finders are in use. The factory can be called on any thread.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     * @return a factory that creates a new {@link PathFinder} on every call.
+     */
+    public Supplier<PathFinder> prepare(NavigationGrid grid) {
+        if (this == HPA) {
+            HierarchicalGraph graph = new HierarchicalGraph(grid);
+            return () -> new HierarchicalPathFinder(graph);
+        }
+        return () -> create(grid);
+    }
+
+    /**
+     * Returns the type with the given name from the ".properties" file (case-insensitive).
+     *
+     * @param name The name of the algorithm, e.g., "bfs", "astar", "jps" or "hpa".
+     * @return the matching type, or {@link #BFS} if the name is empty or unknown.
+     */
+    public static PathFinderType fromProperty(String name) {
+        for (PathFinderType type : values()) {
+            if (type.name().equalsIgnoreCase(name.trim()))
+                return type;
+        }
+        return BFS;
+    }
+}
@@ -0,0 +1,129 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A path search that is resolved in the background by a {@link PathRequestQueue}. <br>
+ * Every enemy owns one request and reuses it, so that asking for a path doesn't allocate new arrays.
+ * A request is either idle or pending; while it is pending, it can't be submitted again.
+ * A request can also stand for a search on the render thread, which only takes its turn with the {@link PathScheduler}.
+ * <p>
+ * The start and the goals are only written on the render thread before the request is submitted,
+ * and the result is only written by the worker thread until the queue hands it back,
+ * so the two threads never touch the same data at the same time.
+ */
+public class PathRequest {
+    private int start;
+    private final IntArray goals; // the goal tiles, written on the render thread
+    private final IntArray workerPath; // the path found by the worker thread
+    private boolean workerFound;
+    private long searchNanos; // how long the worker has searched
+
+    private boolean pending; // only read and written on the render thread
+    private boolean hasResult; // a delivered result that hasn't been taken yet
+
+    // the scheduling by the PathScheduler, only read and written on the render thread
+    private int priority; // the lower, the earlier the request is granted
+    private int waitingFrames; // how many frames the request has been deferred in a row
+    private long permitFrame = -1; // the frame in which the request may be submitted
+
+    public PathRequest() {
+        this.goals = new IntArray(8);
+        this.workerPath = new IntArray();
+    }
+
+    /**
+     * Checks if the request is still being resolved.
+     *
+     * @return {@code true} if the request has been submitted and its result hasn't been delivered yet.
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Takes the result that has been delivered since the last call, if there is one.
+     *
+     * @param path The array to copy the found path to. It is cleared if no path has been found.
+     * @return {@code true} if a new result has been delivered (whether a path has been found or not),
+     *         {@code false} if there is no new result and the array hasn't been touched.
+     */
+    public boolean takeResult(IntArray path) {
+        if (!hasResult) return false;
+        hasResult = false;
+        path.clear();
+        if (workerFound) path.addAll(workerPath);
+        return true;
+    }
+
+    /**
+     * Prepares the request for a new search, on the render thread.
+     */
+    void prepare(int start, IntArray goals) {
+        this.start = start;
+        this.goals.clear();
+        this.goals.addAll(goals);
+        this.workerPath.clear();
+        this.workerFound = false;
+        this.pending = true;
+        this.hasResult = false;
+    }
+
+    /**
+     * Runs the search, on a worker thread.
+     *
+     * @param pathFinder The {@link PathFinder} of the worker thread.
+     */
+    void resolve(PathFinder pathFinder) {
+        long startTime = System.nanoTime();
+        workerFound = pathFinder.findPath(start, goals, workerPath);
+        searchNanos = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Returns how long the last search has taken on the worker thread.
+     * Only valid once the result has been delivered.
+     */
+    long getSearchNanos() {
+        return searchNanos;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    int getWaitingFrames() {
+        return waitingFrames;
+    }
+
+    /**
+     * Allows the request to be submitted in the given frame.
+     */
+    void grant(long frame) {
+        permitFrame = frame;
+        waitingFrames = 0;
+    }
+
+    /**
+     * Makes the request wait for another frame.
+     */
+    void defer() {
+        waitingFrames++;
+    }
+
+    boolean isPermitted(long frame) {
+        return permitFrame == frame;
+    }
+
+    /**
+     * Marks the result as delivered, on the render thread.
+     */
+    void deliver() {
+        pending = false;
+        hasResult = true;
+    }
+}
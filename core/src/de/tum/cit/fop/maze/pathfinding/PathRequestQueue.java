@@ -0,0 +1,175 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.util.NavigationGrid;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Resolves {@link PathRequest}s on a fixed pool of worker threads, so that the searches don't slow down the render thread. <br>
+ * The workers search on a snapshot of the walkability grid, so that the render thread can change the grid during a search.
+ * A new snapshot is taken when a request is submitted after the walkability has changed,
+ * and the shared {@link PathCache} is moved to its version at the same time, so that it only holds the paths
+ * of the snapshot that the workers search on.
+ * Every worker thread has its own {@link PathFinder} for the current snapshot, since a path finder reuses its arrays
+ * for every search, but what the path finders can share (see {@link PathFinderType#prepare(NavigationGrid)})
+ * is only prepared once per snapshot. All the workers share the cache, so the same search is only done once.
+ * <p>
+ * The found paths are not handed back right away, but collected until {@link #deliverResults()}
+ * is called on the render thread at the beginning of the next frame.
+ * This way, the enemies only ever see a new path between two frames, never in the middle of one.
+ */
+public class PathRequestQueue {
+    private final NavigationGrid grid; // the live grid, which is only read on the render thread
+    private final PathFinderType type;
+    private final PathCache cache;
+    private volatile Snapshot snapshot; // the copy of the grid that the workers search on
+    private final ExecutorService workers;
+    private final ThreadLocal<CachingPathFinder> pathFinders; // one path finder for each worker thread
+    private final ThreadLocal<Snapshot> pathFinderSnapshots; // the snapshot that the path finder of the worker searches on
+    private final ConcurrentLinkedQueue<PathRequest> completed; // resolved by the workers, but not delivered yet
+    private long deliveredSearchNanos; // the search time of the results of the last delivery
+
+    /**
+     * A copy of the grid, and the path finders that search on it.
+     */
+    private static class Snapshot {
+        private final NavigationGrid grid;
+        private final PathFinderType type;
+        private Supplier<PathFinder> pathFinders; // prepared by the first worker that searches on the snapshot
+
+        private Snapshot(NavigationGrid grid, PathFinderType type) {
+            this.grid = grid;
+            this.type = type;
+        }
+
+        /**
+         * Creates a path finder on the snapshot. The first call prepares what the path finders share,
+         * and the other workers wait for it instead of preparing it again.
+         */
+        private synchronized PathFinder createPathFinder() {
+            if (pathFinders == null) pathFinders = type.prepare(grid);
+            return pathFinders.get();
+        }
+    }
+
+    /**
+     * Constructs a queue with its worker threads.
+     * What the path finders share is prepared right away, since the queue is constructed while the level is loaded.
+     *
+     * @param grid        The {@link NavigationGrid} of the level, which is copied for the workers.
+     * @param type        The pathfinding algorithm that the workers use.
+     * @param cache       The {@link PathCache} that the workers share, which is moved to the version of the snapshots.
+     * @param workerCount The number of worker threads.
+     */
+    public PathRequestQueue(NavigationGrid grid, PathFinderType type, PathCache cache, int workerCount) {
+        this.grid = grid;
+        this.type = type;
+        this.cache = cache;
+        this.snapshot = new Snapshot(new NavigationGrid(grid), type);
+        snapshot.pathFinders = type.prepare(snapshot.grid);
+        cache.setGridVersion(grid.getVersion());
+        this.pathFinders = new ThreadLocal<>();
+        this.pathFinderSnapshots = new ThreadLocal<>();
+        this.completed = new ConcurrentLinkedQueue<>();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "PathWorker");
+            thread.setDaemon(true); // the workers must never keep the game from exiting
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a search from the start tile to the closest of the goal tiles.
+     * Must be called on the render thread.
+     *
+     * @param request The request to resolve, which must not be pending.
+     * @param start   The packed index of the start tile.
+     * @param goals   The packed indices of the goal tiles, which are copied into the request.
+     * @return {@code true} if the request has been submitted, {@code false} if it is still pending or the queue is disposed.
+     */
+    public boolean submit(PathRequest request, int start, IntArray goals) {
+        if (request.isPending()) return false;
+
+        if (snapshot.grid.getVersion() != grid.getVersion()) takeSnapshot();
+
+        request.prepare(start, goals);
+        Snapshot searchedSnapshot = snapshot;
+        try {
+            workers.execute(() -> {
+                request.resolve(getPathFinder(searchedSnapshot));
+                completed.add(request);
+            });
+        } catch (RejectedExecutionException e) {
+            request.deliver(); // the queue has been disposed, so just give back an empty result
+            Gdx.app.error("PathRequestQueue", "Path request rejected", e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the live grid again after its walkability has changed, and drops the paths of the old snapshot from the cache.
+     * The searches that are still running finish on the old snapshot, but their paths are not cached anymore.
+     * What the path finders share is prepared by the first worker that searches on the new snapshot, not on the render thread.
+     */
+    private void takeSnapshot() {
+        snapshot = new Snapshot(new NavigationGrid(grid), type);
+        cache.setGridVersion(grid.getVersion());
+        Gdx.app.log("PathRequestQueue", "Walkability changed, the workers search on version " + grid.getVersion() + " now");
+    }
+
+    /**
+     * Returns the path finder of the current worker thread for the given snapshot,
+     * and creates it if the worker hasn't searched on that snapshot yet.
+     */
+    private PathFinder getPathFinder(Snapshot searchedSnapshot) {
+        CachingPathFinder pathFinder = pathFinders.get();
+        if (pathFinder == null || pathFinderSnapshots.get() != searchedSnapshot) {
+            pathFinder = new CachingPathFinder(searchedSnapshot.createPathFinder(), cache, searchedSnapshot.grid.getVersion());
+            pathFinders.set(pathFinder);
+            pathFinderSnapshots.set(searchedSnapshot);
+        }
+        return pathFinder;
+    }
+
+    /**
+     * Hands back all the results that the workers have found since the last call.
+     * Must be called on the render thread, once per frame, before the enemies are updated.
+     *
+     * @return the number of delivered results.
+     */
+    public int deliverResults() {
+        int count = 0;
+        deliveredSearchNanos = 0;
+        PathRequest request;
+        while ((request = completed.poll()) != null) {
+            request.deliver();
+            deliveredSearchNanos += request.getSearchNanos();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns how long the workers have searched in total for the results of the last {@link #deliverResults()}.
+     *
+     * @return the search time in nanoseconds.
+     */
+    public long getDeliveredSearchNanos() {
+        return deliveredSearchNanos;
+    }
+
+    /**
+     * Stops the worker threads. The searches that are still running are abandoned.
+     */
+    public void dispose() {
+        workers.shutdownNow();
+        completed.clear();
+    }
+}
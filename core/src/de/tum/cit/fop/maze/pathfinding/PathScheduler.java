@@ -0,0 +1,161 @@
+package de.tum.cit.fop.maze.pathfinding;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Comparator;
+
+/**
+ * Spreads the path searches of the enemies over several frames, so that they never all replan in the same frame. <br>
+ * Every frame, the searches get a fixed time budget (see {@link de.tum.cit.fop.maze.util.Constants#PATHFINDING_BUDGET_MICROS}).
+ * An enemy that wants a new path asks the scheduler in its update, and the scheduler decides at the beginning
+ * of the next frame which requests may be submitted to the {@link PathRequestQueue} in that frame.
+ * The cost of a search is estimated from how long the workers have actually searched.
+ * <p>
+ * The searches that have to run on the render thread, like a {@link DStarLitePathFinder} that starts over,
+ * take their turn in the same way (see {@link #acquire(PathRequest, int)}), and the time that the render thread spends
+ * on planning is reported with {@link #charge(long, boolean)} and taken from the budget of the next frame.
+ * <p>
+ * The requests with the lowest priority value go first (e.g., the enemies that are close to the player and have no path),
+ * and a request that has been deferred moves up by one priority for every frame that it waits,
+ * so the requests take turns and no enemy waits forever.
+ */
+public class PathScheduler {
+    // how much a new measurement changes the estimated cost of a search
+    private static final float SMOOTHING = 0.1f;
+
+    private final PathRequestQueue queue;
+    private final long budgetNanos;
+    private final Array<PathRequest> waiting; // the requests that asked for a search in the last frame
+    private final Comparator<PathRequest> byPriority;
+
+    private float estimatedSearchNanos; // the estimated cost of one search
+    private long renderThreadNanos; // how long the render thread has planned in the current frame
+    private long frame; // the number of the current frame
+    private int deferredSearches; // how many requests have been deferred in the current frame
+    private long totalDeferredSearches;
+
+    /**
+     * Constructs a scheduler that submits the granted requests to the given queue.
+     *
+     * @param queue        The {@link PathRequestQueue} that resolves the requests.
+     * @param budgetMicros The time budget of the searches per frame in microseconds.
+     */
+    public PathScheduler(PathRequestQueue queue, int budgetMicros) {
+        this.queue = queue;
+        this.budgetNanos = budgetMicros * 1000L;
+        this.waiting = new Array<>(false, 16);
+        // aging: every frame of waiting is worth one priority
+        this.byPriority = Comparator.comparingInt(request -> request.getPriority() - request.getWaitingFrames());
+        this.estimatedSearchNanos = budgetNanos / 8f; // until the first search has been measured
+        this.frame = 0;
+    }
+
+    /**
+     * Starts a new frame: hands back the results of the workers, and decides which of the requests
+     * that asked for a search in the last frame may be submitted in this frame.
+     * The time that the render thread has planned in the last frame is already spent from the budget.
+     * Must be called on the render thread, once per frame, before the enemies are updated.
+     */
+    public void update() {
+        frame++;
+        int delivered = queue.deliverResults();
+        if (delivered > 0) {
+            float averageNanos = (float) queue.getDeliveredSearchNanos() / delivered;
+            estimatedSearchNanos += (averageNanos - estimatedSearchNanos) * SMOOTHING;
+        }
+
+        deferredSearches = 0;
+        waiting.sort(byPriority);
+        long spentNanos = renderThreadNanos; // e.g., the repairs of the incremental planners, which happen every frame
+        renderThreadNanos = 0;
+        for (int i = 0; i < waiting.size; i++) {
+            PathRequest request = waiting.get(i);
+            // the first request is always granted, even if a single search costs more than the whole budget
+            if (i == 0 || spentNanos + estimatedSearchNanos <= budgetNanos) {
+                request.grant(frame);
+                spentNanos += Math.max(1, (long) estimatedSearchNanos);
+            }
+            else {
+                request.defer();
+                deferredSearches++;
+            }
+        }
+        totalDeferredSearches += deferredSearches;
+        waiting.clear();
+    }
+
+    /**
+     * Submits the request if it has been granted for this frame,
+     * otherwise asks for it to be granted in the next frame.
+     * Must be called on the render thread.
+     *
+     * @param request  The request to resolve.
+     * @param start    The packed index of the start tile.
+     * @param goals    The packed indices of the goal tiles.
+     * @param priority The priority of the request, the lower, the earlier it is granted.
+     * @return {@code true} if the request has been submitted, {@code false} if it has to wait.
+     */
+    public boolean submit(PathRequest request, int start, IntArray goals, int priority) {
+        if (request.isPending()) return false;
+        if (request.isPermitted(frame))
+            return queue.submit(request, start, goals);
+
+        request.setPriority(priority);
+        if (!waiting.contains(request, true))
+            waiting.add(request);
+        return false;
+    }
+
+    /**
+     * Checks if a search on the render thread may run in this frame,
+     * otherwise asks for it to be granted in the next frame, like {@link #submit(PathRequest, int, IntArray, int)}.
+     * The request is only used as the ticket of the search, it isn't resolved by the workers.
+     * Must be called on the render thread.
+     *
+     * @param request  The request that stands for the search, which mustn't be submitted to the queue as well.
+     * @param priority The priority of the search, the lower, the earlier it is granted.
+     * @return {@code true} if the search may run right away, {@code false} if it has to wait.
+     */
+    public boolean acquire(PathRequest request, int priority) {
+        if (request.isPermitted(frame))
+            return true;
+
+        request.setPriority(priority);
+        if (!waiting.contains(request, true))
+            waiting.add(request);
+        return false;
+    }
+
+    /**
+     * Reports how long the render thread has planned, so that it is taken from the budget of the next frame.
+     * Must be called on the render thread.
+     *
+     * @param nanos        The time that the planning has taken in nanoseconds.
+     * @param isFullSearch Whether it was a whole search that had been granted by {@link #acquire(PathRequest, int)},
+     *                     which then also corrects the estimated cost of a search.
+     */
+    public void charge(long nanos, boolean isFullSearch) {
+        renderThreadNanos += nanos;
+        if (isFullSearch)
+            estimatedSearchNanos += (nanos - estimatedSearchNanos) * SMOOTHING;
+    }
+
+    /**
+     * Returns how many requests had to wait because the budget of this frame was already spent.
+     *
+     * @return the number of deferred searches in this frame.
+     */
+    public int getDeferredSearches() {
+        return deferredSearches;
+    }
+
+    /**
+     * Returns how many times a request has been deferred since the level has been loaded.
+     *
+     * @return the total number of deferred searches.
+     */
+    public long getTotalDeferredSearches() {
+        return totalDeferredSearches;
+    }
+}
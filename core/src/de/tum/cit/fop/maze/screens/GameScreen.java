@@ -138,19 +138,9 @@ public GameScreen(MazeRunnerGame game) {
         // initialize game world elements
         levels = new LevelManager(game);
 
-        isTutorial = false;
-        TiledMap tiledMap;
+        isTutorial = (game.getGameLevel() == 0);
         Gdx.app.log("Constructor GameScreen", "Game Level upon creation of GameScreen: " + game.getGameLevel());
-        if (game.getGameLevel() <= TOTAL_LEVELS && game.getGameLevel() > 0){
-            tiledMap = levels.loadTiledMap("maps/level-"+game.getGameLevel()+"-map.properties", Gdx.files.internal("tilesets/level"+ game.getGameLevel()+"_tileset.png").path(), Gdx.files.internal("tilesets/level"+ game.getGameLevel()+"_obstacles.png").path());
-        }
-        else if (game.getGameLevel() == 0){
-            isTutorial = true;
-            tiledMap = levels.loadTiledMap("maps/level-0-map.properties", Gdx.files.internal("tilesets/level1_tileset.png").path(), Gdx.files.internal("tilesets/level1_obstacles.png").path());
-        }
-        else{
-            tiledMap = levels.loadTiledMap("maps/level-1-map.properties", Gdx.files.internal("tilesets/level1_tileset.png").path(), Gdx.files.internal("tilesets/level1_obstacles.png").path());
-        }
+        TiledMap tiledMap = levels.loadTiledMap(game.getPreparedLevel(game.getGameLevel())); // cached if the level has been played or preloaded
         createInstructionPanel();
 
         // Initialize the key. Only after we lod the tiled map, we can access the key's position
@@ -165,9 +155,11 @@ else if (game.getGameLevel() == 0){
 
         collectibles = new Array<>();
         spawnCollectibles();
+        levels.getCollectibleHash().insertAll(collectibles);
 
         portals = new Array<>();
         spawnPortal();
+        levels.getPortalHash().insertAll(portals);
 
         // Set up map renderer
         mapRenderer = new OrthogonalTiledMapRenderer(tiledMap,  (float) TILE_SCREEN_SIZE / TILE_SIZE); // Scale tiles, so like unitScale is times how many
@@ -815,6 +807,9 @@ public void render(float delta) {
         handleInput(); // handle input of the keys
 
         player.update(delta); // ALL the player functionalities are here
+        levels.getFlowField().update(player.getX(), player.getY()); // only runs the BFS again if the player is on another tile
+        levels.getPathScheduler().update(); // hand over the found paths, and decide which enemies may search in this frame
+        levels.getEnemyContacts().update(); // find the touching enemies once, which every enemy reads in its update
         for (ChasingEnemy enemy : iterate(levels.chasingEnemies)) {
             enemy.update(delta);
         }
@@ -822,6 +817,7 @@ public void render(float delta) {
             Collectibles collectible = collectibles.get(i);
             if (collectible.isCollected()) {
                 collectibles.removeIndex(i);
+                levels.getCollectibleHash().remove(collectible);
             } else {
                 collectible.update();
             }
@@ -831,7 +827,7 @@ public void render(float delta) {
             portal.update(delta);
         }
 
-        player.checkPortalCollisions(portals);
+        player.checkPortalCollisions();
         game.checkExitToNextLevel(player);
 
         renderGameWorld();
@@ -934,6 +930,7 @@ private void renderGameWorld(){
 
         // mapRenderer use another rendering batch, so we have to end the ones first, render the map, and then begin our spriteBatch again outside of this function
         mapRenderer.setView(camera);
+        levels.streamChunksAround(mapRenderer.getViewBounds()); // only the chunks around the camera have their tiles
         // this adds a darker shade to it, like night effect
         //mapRenderer.getBatch().setColor(0.5f, 0.5f, 0.5f, 1);
         mapRenderer.render(); // mapRenderer renders the map, also the layers or so the tiles
@@ -1284,6 +1281,9 @@ private void renderHUD() {
         variablesToShow.put("player.speed", player.getSpeed());
         variablesToShow.put("camera zoom", camera.zoom);
         variablesToShow.put("player.stamina", player.getStamina());
+        variablesToShow.put("deferred path searches", (float) levels.getPathScheduler().getDeferredSearches());
+        variablesToShow.put("path cache hits", (float) levels.getPathCache().getHits());
+        variablesToShow.put("path cache misses", (float) levels.getPathCache().getMisses());
 
         game.getSpriteBatch().end();
 
@@ -1812,6 +1812,7 @@ public void dispose() {
         // disposing all disposables (such as Stage, Skin, Texture ... etc)
         stage1.dispose();
         shader.dispose();
+        levels.dispose(); // stop the pathfinding workers and free the tile sheets of this level
     }
 
     public Key getKey() {
@@ -0,0 +1,93 @@
+package de.tum.cit.fop.maze.tiles;
+
+/**
+ * The solid pixels of a tile's image as an immutable bitfield, e.g., 256 bits in a {@code long[4]} for a 16x16 tile. <br>
+ * A mask only depends on the texture region, so one instance is shared by every tile (and trap)
+ * that is drawn with the same region (see {@link HitMaskRegistry}),
+ * instead of every cell having its own {@code boolean[][]}.
+ * The masks are cut out of the masks of the whole tile sheet, see {@link HitMaskSheet}.
+ * <p>
+ * The pixels are addressed like in the image, i.e., the y-axis is facing down.
+ * For the area queries, a summed-area table of the solid pixels is built the first time that it is needed.
+ */
+public class HitMask {
+    private final int width, height; // in pixels
+    private final long[] bits; // pixel (x, y) is bit y * width + x
+    private int[] solidSums; // the number of solid pixels above and left of (x, y) is at (y * (width + 1) + x), created lazily
+
+    /**
+     * Packs a hit pixel map into a mask.
+     *
+     * @param hitPixmap The hit pixel map, indexed by {@code [x][y]}.
+     */
+    public HitMask(boolean[][] hitPixmap) {
+        this.width = hitPixmap.length;
+        this.height = hitPixmap[0].length;
+        this.bits = new long[(width * height + 63) >>> 6];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (!hitPixmap[x][y]) continue;
+                int bit = y * width + x;
+                bits[bit >>> 6] |= 1L << (bit & 63);
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if a pixel is solid. The pixels outside the mask are never solid.
+     *
+     * @param x The x-coordinate of the pixel, from the left.
+     * @param y The y-coordinate of the pixel, from the top.
+     * @return {@code true} if the pixel is solid; {@code false} otherwise.
+     */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int bit = y * width + x;
+        return (bits[bit >>> 6] >>> (bit & 63) & 1L) != 0;
+    }
+
+    /**
+     * Checks if any pixel in a rectangle of the mask is solid, in constant time with a summed-area table.
+     * The parts of the rectangle outside the mask are ignored.
+     *
+     * @param minX The x-coordinate of the leftmost column, inclusive.
+     * @param minY The y-coordinate of the top row, inclusive.
+     * @param maxX The x-coordinate of the rightmost column, inclusive.
+     * @param maxY The y-coordinate of the bottom row, inclusive.
+     * @return {@code true} if at least one pixel in the rectangle is solid; {@code false} otherwise.
+     */
+    public boolean isAnySolid(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        if (minX > maxX || minY > maxY) return false;
+
+        if (solidSums == null) solidSums = createSolidSums();
+        int stride = width + 1;
+        int count = solidSums[(maxY + 1) * stride + maxX + 1] - solidSums[minY * stride + maxX + 1]
+                - solidSums[(maxY + 1) * stride + minX] + solidSums[minY * stride + minX];
+        return count > 0;
+    }
+
+    private int[] createSolidSums() {
+        int stride = width + 1;
+        int[] sums = new int[stride * (height + 1)]; // the first row and column stay 0
+        for (int y = 0; y < height; y++) {
+            int rowSum = 0;
+            for (int x = 0; x < width; x++) {
+                if (isSolid(x, y)) rowSum++;
+                sums[(y + 1) * stride + x + 1] = sums[y * stride + x + 1] + rowSum;
+            }
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,81 @@
+package de.tum.cit.fop.maze.tiles;
+
+import de.tum.cit.fop.maze.util.FilePaths;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Bakes the hit masks of tile sheet images into {@link HitMaskSheet} sidecars next to them, e.g.,
+ * {@code tilesets/level1_tileset.hitmask} for {@code tilesets/level1_tileset.png}. <br>
+ * It is run by the Gradle task {@code bakeHitMasks} with the paths of the images as arguments,
+ * but it can also be run by hand after editing a tile sheet.
+ * The images are decoded with {@link ImageIO}, so it runs without the native libraries of libGDX,
+ * and the pixels go through {@link HitMaskSheet#extract(int, int, HitMaskSheet.PixelSource)} like in the game.
+ */
+public final class HitMaskBaker {
+    private HitMaskBaker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: HitMaskBaker <tile sheet image>...");
+            System.exit(1);
+        }
+        for (String imagePath : args) {
+            Path sidecarPath = Paths.get(getSidecarPath(imagePath));
+            bake(imagePath, sidecarPath);
+            System.out.println("Baked " + imagePath + " into " + sidecarPath + " (" + Files.size(sidecarPath) + " bytes)");
+        }
+    }
+
+    /**
+     * Returns the path of the sidecar of an image, i.e., the same path with {@link HitMaskSheet#EXTENSION}.
+     *
+     * @param imagePath The path to the image.
+     * @return the path to the sidecar next to it.
+     */
+    public static String getSidecarPath(String imagePath) {
+        return FilePaths.replaceExtension(imagePath, HitMaskSheet.EXTENSION);
+    }
+
+    /**
+     * Decodes an image and writes the sidecar of its hit masks.
+     *
+     * @param imagePath   The path to the image.
+     * @param sidecarPath The path to write the sidecar to.
+     * @throws IOException If the image can't be read or the sidecar can't be written.
+     */
+    public static void bake(String imagePath, Path sidecarPath) throws IOException {
+        HitMaskSheet sheet = extract(imagePath);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(sidecarPath))) {
+            sheet.write(out);
+        }
+    }
+
+    /**
+     * Decodes an image and extracts its hit masks, without a sidecar and without the native libraries of libGDX.
+     *
+     * @param imagePath The path to the image.
+     * @return the planes of the image.
+     * @throws IOException If the image can't be read.
+     */
+    public static HitMaskSheet extract(String imagePath) throws IOException {
+        BufferedImage image = ImageIO.read(new File(imagePath));
+        if (image == null)
+            throw new IOException("Not an image: " + imagePath);
+
+        // getRGB() gives ARGB8888, the rules of the tiles expect RGBA8888 like Pixmap.getPixel()
+        return HitMaskSheet.extract(image.getWidth(), image.getHeight(), (x, y) -> {
+            int argb = image.getRGB(x, y);
+            return (argb << 8) | (argb >>> 24);
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package de.tum.cit.fop.maze.tiles;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The {@link HitMask}s of a level, one per index of the tileset. <br>
+ * A mask is created the first time that its index is placed on the map, and every later cell (or trap)
+ * with the same index gets the same instance. Since a level uses only a few dozen different tiles
+ * on thousands of cells, this saves almost all the memory and the work of the masks.
+ * <p>
+ * The masks are cut out of the {@link HitMaskSheet} of their texture, which is loaded once per texture.
+ */
+public class HitMaskRegistry {
+    private final IntMap<HitMask> masks = new IntMap<>();
+    private final ObjectMap<Texture, HitMaskSheet> sheets = new ObjectMap<>();
+
+    /**
+     * Returns the shared mask of a tile, and creates it from the tile if it is the first one with this index.
+     *
+     * @param index The index of the tile's texture region in the tileset.
+     * @param tile  The tile, which decides how its mask is created (e.g., {@link SpeedBoost}).
+     * @return the shared mask of the index.
+     */
+    public HitMask get(int index, Tile tile) {
+        HitMask mask = masks.get(index);
+        if (mask == null) {
+            mask = tile.createHitMask(getSheet(tile.getTextureRegion().getTexture()));
+            masks.put(index, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the shared mask of a texture region from its alpha,
+     * and creates it if it is the first one with this index, e.g., for the traps.
+     *
+     * @param index         The index of the texture region in the tileset.
+     * @param textureRegion The texture region.
+     * @return the shared mask of the index.
+     */
+    public HitMask get(int index, TextureRegion textureRegion) {
+        HitMask mask = masks.get(index);
+        if (mask == null) {
+            mask = getSheet(textureRegion.getTexture()).getSolidMask(textureRegion);
+            masks.put(index, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the masks of a tile sheet, and loads them if it is the first tile on this sheet.
+     *
+     * @param texture The texture of the tile sheet.
+     * @return the masks of the tile sheet.
+     */
+    public HitMaskSheet getSheet(Texture texture) {
+        HitMaskSheet sheet = sheets.get(texture);
+        if (sheet == null) {
+            sheet = HitMaskSheet.of(texture);
+            sheets.put(texture, sheet);
+        }
+        return sheet;
+    }
+
+    /**
+     * Puts the already loaded masks of a tile sheet, e.g., the ones of a {@link de.tum.cit.fop.maze.level.PreparedLevel},
+     * so that {@link #getSheet(Texture)} doesn't load them again.
+     *
+     * @param texture The texture of the tile sheet.
+     * @param sheet   The masks of the tile sheet.
+     */
+    public void putSheet(Texture texture, HitMaskSheet sheet) {
+        sheets.put(texture, sheet);
+    }
+
+    /**
+     * Forgets the textures of the tile sheets, when the level is loaded again with new textures.
+     * The masks themselves are kept, since they only depend on the images, not on the textures.
+     */
+    public void clearSheets() {
+        sheets.clear();
+    }
+
+    /**
+     * Returns the number of different masks, i.e., the number of different tiles on the map.
+     *
+     * @return the number of masks.
+     */
+    public int size() {
+        return masks.size;
+    }
+}
@@ -0,0 +1,255 @@
+package de.tum.cit.fop.maze.tiles;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * The hit masks of a whole tile sheet, i.e., one bit per pixel of the image, from which the {@link HitMask}
+ * of every texture region on the sheet is cut out. <br>
+ * There are two planes: the solid pixels of the normal tiles (see {@link Tile#isSolidColor(int)})
+ * and the handrails of the moving walkways (see {@link SpeedBoost#isHandrailColor(int)}).
+ * <p>
+ * The planes are baked by {@link HitMaskBaker} (the Gradle task {@code bakeHitMasks}) into a binary sidecar next to the image,
+ * e.g., {@code tilesets/level1_tileset.hitmask} for {@code tilesets/level1_tileset.png}, which is read directly.
+ * A sidecar that is older than the image, can't be read (e.g., truncated) or doesn't have its size is ignored.
+ * Without a usable sidecar, the planes are extracted from the image's pixmap, which is disposed right away,
+ * so that no RGBA copy of a sheet stays in memory.
+ * <p>
+ * The sidecar is big-endian: the magic number {@code "HMSK"}, the width and the height in pixels (as {@code int}s),
+ * and then the solid and the handrail plane as {@code long}s, row by row from the top,
+ * where every row starts at a new {@code long} and pixel x is bit {@code x % 64} of word {@code x / 64}.
+ */
+public class HitMaskSheet {
+    public static final String EXTENSION = ".hitmask";
+    private static final int MAGIC = 0x484D534B; // "HMSK"
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * The pixels of an image that the planes are extracted from, e.g., a {@link Pixmap}.
+     */
+    public interface PixelSource {
+        /**
+         * Returns the color of a pixel.
+         *
+         * @param x The x-coordinate of the pixel, from the left.
+         * @param y The y-coordinate of the pixel, from the top.
+         * @return the color in RGBA8888 format, like {@link Pixmap#getPixel(int, int)}.
+         */
+        int getPixel(int x, int y);
+    }
+
+    private final int width, height; // in pixels
+    private final int wordsPerRow;
+    private final long[] solid, handrail;
+
+    private HitMaskSheet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.solid = new long[wordsPerRow * height];
+        this.handrail = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Loads the planes of a texture from its sidecar if there is one,
+     * and extracts them from the texture's pixmap otherwise.
+     *
+     * @param texture The texture of the tile sheet.
+     * @return the planes of the texture.
+     */
+    public static HitMaskSheet of(Texture texture) {
+        TextureData textureData = texture.getTextureData();
+        if (textureData instanceof FileTextureData fileTextureData) {
+            FileHandle image = fileTextureData.getFileHandle();
+            HitMaskSheet sheet = readSidecar(image, texture.getWidth(), texture.getHeight());
+            if (sheet != null) return sheet;
+        }
+        return extract(textureData);
+    }
+
+    /**
+     * Loads the planes of a tile sheet image from its sidecar if there is one,
+     * and extracts them from the already decoded pixmap of the image otherwise.
+     * It doesn't need a texture, so it can also be used on another thread than the render thread.
+     *
+     * @param image  The file of the tile sheet image.
+     * @param pixmap The decoded image, which is not disposed.
+     * @return the planes of the image.
+     */
+    public static HitMaskSheet of(FileHandle image, Pixmap pixmap) {
+        HitMaskSheet sheet = readSidecar(image, pixmap.getWidth(), pixmap.getHeight());
+        return (sheet != null) ? sheet : extract(pixmap);
+    }
+
+    /**
+     * Reads the sidecar of an image if it has been baked from the current image,
+     * i.e., if it is not older than the image (like the compiled levels), can be read, and has the size of the image.
+     *
+     * @return the planes in the sidecar, or {@code null} if there is no usable sidecar.
+     */
+    private static HitMaskSheet readSidecar(FileHandle image, int width, int height) {
+        FileHandle sidecar = image.sibling(image.nameWithoutExtension() + EXTENSION);
+        if (!sidecar.exists()) {
+            Gdx.app.log("HitMaskSheet", "No " + sidecar.name() + " baked, extracting the hit masks from the pixmap");
+            return null;
+        }
+        if (sidecar.lastModified() < image.lastModified()) {
+            Gdx.app.log("HitMaskSheet", sidecar.name() + " is older than the image, extracting the hit masks from the pixmap");
+            return null;
+        }
+        HitMaskSheet sheet;
+        try {
+            sheet = read(sidecar);
+        } catch (GdxRuntimeException e) { // e.g., a bake that has been interrupted
+            Gdx.app.error("HitMaskSheet", e.getMessage() + ", extracting the hit masks from the pixmap");
+            return null;
+        }
+        if (sheet.width != width || sheet.height != height) {
+            Gdx.app.error("HitMaskSheet", sidecar.name() + " is " + sheet.width + "x" + sheet.height + " pixels, but the image is "
+                    + width + "x" + height + ", extracting the hit masks from the pixmap");
+            return null;
+        }
+        return sheet;
+    }
+
+    /**
+     * Reads the planes from a baked sidecar.
+     *
+     * @param sidecar The sidecar file.
+     * @return the planes in the file.
+     * @throws GdxRuntimeException If the file is not a hit mask sidecar.
+     */
+    public static HitMaskSheet read(FileHandle sidecar) {
+        ByteBuffer buffer = ByteBuffer.wrap(sidecar.readBytes()); // big-endian by default
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new GdxRuntimeException("Not a hit mask file: " + sidecar);
+
+        HitMaskSheet sheet = new HitMaskSheet(buffer.getInt(), buffer.getInt());
+        LongBuffer words = buffer.asLongBuffer();
+        if (words.remaining() != sheet.solid.length + sheet.handrail.length)
+            throw new GdxRuntimeException("Truncated hit mask file: " + sidecar);
+        words.get(sheet.solid);
+        words.get(sheet.handrail);
+        return sheet;
+    }
+
+    /**
+     * Extracts the planes from the pixmap of a texture, and disposes the pixmap afterward if it is owned by us.
+     */
+    private static HitMaskSheet extract(TextureData textureData) {
+        if (!textureData.isPrepared())
+            textureData.prepare();
+        Pixmap pixmap = textureData.consumePixmap();
+        try {
+            return extract(pixmap);
+        } finally {
+            if (textureData.disposePixmap())
+                pixmap.dispose();
+        }
+    }
+
+    /**
+     * Extracts the planes from a pixmap. The pixmap is not disposed.
+     *
+     * @param pixmap The pixmap of the whole tile sheet.
+     * @return the planes of the pixmap.
+     */
+    public static HitMaskSheet extract(Pixmap pixmap) {
+        return extract(pixmap.getWidth(), pixmap.getHeight(), pixmap::getPixel);
+    }
+
+    /**
+     * Extracts the planes from the pixels of an image, e.g., one decoded without a pixmap by the {@link HitMaskBaker}.
+     *
+     * @param width  The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param pixels The pixels of the image.
+     * @return the planes of the image.
+     */
+    public static HitMaskSheet extract(int width, int height, PixelSource pixels) {
+        HitMaskSheet sheet = new HitMaskSheet(width, height);
+        for (int y = 0; y < sheet.height; y++) {
+            for (int x = 0; x < sheet.width; x++) {
+                int pixel = pixels.getPixel(x, y); // in RGBA8888 format
+                int word = y * sheet.wordsPerRow + (x >>> 6);
+                long bit = 1L << (x & 63);
+                if (Tile.isSolidColor(pixel)) sheet.solid[word] |= bit;
+                if (SpeedBoost.isHandrailColor(pixel)) sheet.handrail[word] |= bit;
+            }
+        }
+        return sheet;
+    }
+
+    /**
+     * Writes the planes in the format of the sidecar, see {@link #read(FileHandle)}.
+     *
+     * @param output The stream to write to, which is not closed.
+     * @throws IOException If the stream can't be written.
+     */
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(width);
+        out.writeInt(height);
+        for (long word : solid)
+            out.writeLong(word);
+        for (long word : handrail)
+            out.writeLong(word);
+        out.flush();
+    }
+
+    /**
+     * Cuts the mask of the solid pixels of a texture region out of the sheet.
+     *
+     * @param textureRegion A texture region on this sheet.
+     * @return the mask of the texture region.
+     */
+    public HitMask getSolidMask(TextureRegion textureRegion) {
+        return cut(solid, textureRegion);
+    }
+
+    /**
+     * Cuts the mask of the handrail pixels of a texture region out of the sheet, for the {@link SpeedBoost} tiles.
+     *
+     * @param textureRegion A texture region on this sheet.
+     * @return the mask of the texture region.
+     */
+    public HitMask getHandrailMask(TextureRegion textureRegion) {
+        return cut(handrail, textureRegion);
+    }
+
+    private HitMask cut(long[] plane, TextureRegion textureRegion) {
+        int startX = textureRegion.getRegionX();
+        int startY = textureRegion.getRegionY();
+        boolean[][] hitPixmap = new boolean[textureRegion.getRegionWidth()][textureRegion.getRegionHeight()];
+        for (int x = 0; x < hitPixmap.length; x++) {
+            for (int y = 0; y < hitPixmap[x].length; y++) {
+                int sheetX = startX + x, sheetY = startY + y;
+                if (sheetX >= width || sheetY >= height) continue;
+                hitPixmap[x][y] = (plane[sheetY * wordsPerRow + (sheetX >>> 6)] >>> (sheetX & 63) & 1L) != 0;
+            }
+        }
+        return new HitMask(hitPixmap);
+    }
+
+    /**
+     * Returns the number of bytes of the two planes.
+     *
+     * @return the size of the planes in bytes.
+     */
+    public int getSizeInBytes() {
+        return (solid.length + handrail.length) * Long.BYTES;
+    }
+}
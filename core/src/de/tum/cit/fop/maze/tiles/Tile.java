@@ -1,16 +1,10 @@
 package de.tum.cit.fop.maze.tiles;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
 import com.badlogic.gdx.math.Rectangle;
 import de.tum.cit.fop.maze.util.Position;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
 import static de.tum.cit.fop.maze.util.Constants.TILE_SIZE;
 
@@ -21,9 +15,7 @@ public class Tile extends StaticTiledMapTile{
     private float worldX, worldY;
     private Position tilePosition;
 
-    protected boolean[][] hitPixmap; // stores the precomputed alpha map
-
-    private static final Map<String, Pixmap> tilePixmapCache = new HashMap<>(); // saving the pixmap first
+    protected HitMask hitMask; // the precomputed alpha map, shared by all the tiles with the same texture region
 
     /**
      * Constructs a Tile with the specified texture region.
@@ -33,7 +25,7 @@ public class Tile extends StaticTiledMapTile{
     public Tile(TextureRegion textureRegion) {
         super(textureRegion);
         this.tilePosition = null;
-        this.hitPixmap = null;
+        this.hitMask = null;
     }
 
     /**
@@ -51,6 +43,8 @@ public Position getTilePosition() {
 
     /**
      * Sets the position of the tile in tile units and updates the hitbox.
+     * The alpha map doesn't depend on the position, it is set with {@link #setHitMask(HitMask)}
+     * (or created the first time it is needed).
      *
      * @param tilePosition The new position of the tile.
      */
@@ -61,8 +55,6 @@ public void setTilePosition(Position tilePosition) {
         tilePosition = tilePosition.convertTo(Position.PositionUnit.PIXELS);
         worldX = tilePosition.getX() - (float) TILE_SCREEN_SIZE / 2;
         worldY = tilePosition.getY() - TILE_SCREEN_SIZE / 2.0f;
-
-        setHitPixmap();
     }
 
     /**
@@ -105,66 +97,48 @@ public int getTileY(){
     }
 
     /**
-     * Sets the hit pixel map based on the texture region.
+     * Creates the alpha map of this tile by cutting its texture region out of the sheet's masks.
+     * Tiles with the same texture region should share it, see {@link HitMaskRegistry}.
+     *
+     * @param sheet The masks of the tile sheet that this tile's texture region is on.
+     * @return the alpha map of this tile.
      */
-    protected void setHitPixmap() {
-        Pixmap pixmap = getTilePixmap(this.getTextureRegion());
-        hitPixmap = createHitPixmap(this.getTextureRegion(), pixmap);
+    protected HitMask createHitMask(HitMaskSheet sheet) {
+        return sheet.getSolidMask(this.getTextureRegion());
     }
 
     /**
-     * Creates a hit pixel map based on the texture region and pixmap.
-     * The alpha calculation is performed here
+     * Sets the (shared) alpha map of this tile.
      *
-     * @param textureRegion The texture region of the tile.
-     * @param tilePixmap    The pixmap of the tile.
-     * @return A 2D boolean array representing the hit pixel map.
+     * @param hitMask The alpha map of this tile's texture region.
      */
-    public static boolean[][] createHitPixmap(TextureRegion textureRegion, Pixmap tilePixmap) {
-        int startX = textureRegion.getRegionX();
-        int startY = textureRegion.getRegionY();
-        int width = textureRegion.getRegionWidth();
-        int height = textureRegion.getRegionHeight();
-
-        boolean[][] hitPixmap = new boolean[width][height];
-
-        // Iterate over the pixels in the texture region
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int pixel = tilePixmap.getPixel(startX + x, startY + y); // pixel is in RGBA8888 Format, so that alpha is the LSB
-                int alpha = (pixel & 0x000000FF); // int alpha = (pixel & 0xFF000000) >>> 24; // Extract the alpha channel
-
-                // Collision detected if (alpha > 150) (max. 255)
-                hitPixmap[x][y] = (alpha > 150);
-            }
-        }
-
-        return hitPixmap;
+    public void setHitMask(HitMask hitMask) {
+        this.hitMask = hitMask;
     }
 
     /**
-     * Precomputes and caches the Pixmap for the given tile region.
+     * Returns the alpha map of this tile, and creates it from the tile sheet if it has not been set.
      *
-     * @param tileRegion The {@link TextureRegion} of the tile.
-     * @return The Pixmap of the tile.
+     * @return the alpha map of this tile.
      */
-    protected Pixmap getTilePixmap(TextureRegion tileRegion) {
-        return getPixmap(tileRegion);
+    public HitMask getHitMask() {
+        if (hitMask == null)
+            hitMask = createHitMask(HitMaskSheet.of(this.getTextureRegion().getTexture()));
+        return hitMask;
     }
 
-    public static Pixmap getPixmap(TextureRegion tileRegion) {
-        String key = tileRegion.getTexture().toString() + tileRegion.getRegionX() + tileRegion.getRegionY();
-        if (!tilePixmapCache.containsKey(key)) {
-            Texture tileTexture = tileRegion.getTexture();
-            TextureData textureData = tileTexture.getTextureData();
-            if (!textureData.isPrepared()) {
-                textureData.prepare();
-            }
+    /**
+     * Checks if a pixel of a tile sheet is solid.
+     * The alpha calculation is performed here, see {@link HitMaskSheet}.
+     *
+     * @param pixel The color of the pixel in RGBA8888 format.
+     * @return True if the pixel is solid, false otherwise.
+     */
+    public static boolean isSolidColor(int pixel) {
+        int alpha = (pixel & 0x000000FF); // pixel is in RGBA8888 Format, so that alpha is the LSB
 
-            Pixmap pixmap = textureData.consumePixmap();
-            tilePixmapCache.put(key, pixmap);
-        }
-        return tilePixmapCache.get(key);
+        // Collision detected if (alpha > 150) (max. 255)
+        return (alpha > 150);
     }
 
     /**
@@ -196,9 +170,19 @@ public boolean isCollidingPoint(float pointX, float pointY) {
             return false; // Point is outside the tile's bounds
         }
 
-        // get that specific bit (boolean)
-        // printHitPixmap();
-        return hitPixmap[localX][localY]; // true if this pixel is true
+        // get that specific bit
+        return getHitMask().isSolid(localX, localY); // true if this pixel is solid
+    }
+
+    /**
+     * Checks if a pixel of the tile's image is solid, i.e., non-transparent.
+     *
+     * @param pixelX The x-coordinate of the pixel, from the left.
+     * @param pixelY The y-coordinate of the pixel, from the top (like in the image).
+     * @return True if the pixel is solid, false otherwise.
+     */
+    public boolean isSolidPixel(int pixelX, int pixelY) {
+        return getHitMask().isSolid(pixelX, pixelY);
     }
 
     /**
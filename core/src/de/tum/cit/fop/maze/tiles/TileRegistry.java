@@ -0,0 +1,100 @@
+package de.tum.cit.fop.maze.tiles;
+
+/**
+ * A lookup table from the tile IDs (the values in the map files, see {@code maps/TypeEnumerationTable.txt})
+ * to their {@link TileType} and flags, built once from the ID ranges of the enum. <br>
+ * Unlike {@link TileType#getAll()}, which builds a new set of boxed IDs on every call,
+ * classifying a tile is an array access here, so loading a map doesn't allocate anything per tile.
+ * <p>
+ * The IDs that no type lists are ground tiles (e.g., the ground variants 6~9 and 16~19),
+ * and the IDs from {@link TileType#EXTRA} on are extras.
+ */
+public final class TileRegistry {
+    // one flag per tile type, and the derived properties
+    private static final int WALL = 1 << TileType.WALL.ordinal();
+    private static final int EXIT = 1 << TileType.EXIT.ordinal();
+    private static final int TRAP = 1 << TileType.TRAP.ordinal();
+    private static final int ENEMY = 1 << TileType.ENEMY.ordinal();
+    private static final int SPEED_BOOST = 1 << TileType.SPEED_BOOST.ordinal();
+    private static final int WALKABLE = 1 << TileType.values().length; // can be walked on by the enemies, i.e., neither a wall nor a trap
+
+    private static final TileType[] TYPES; // indexed by the tile ID
+    private static final int[] FLAGS;
+
+    static {
+        int maxId = 0;
+        for (TileType type : TileType.values()) {
+            maxId = Math.max(maxId, type.getId());
+            for (int id : type.getAll())
+                maxId = Math.max(maxId, id);
+        }
+
+        TYPES = new TileType[maxId + 1];
+        FLAGS = new int[maxId + 1];
+        for (int id = 0; id <= maxId; id++)
+            TYPES[id] = (id < TileType.EXTRA.getId()) ? TileType.GROUND : TileType.EXTRA;
+        for (TileType type : TileType.values()) {
+            TYPES[type.getId()] = type;
+            for (int id : type.getAll())
+                TYPES[id] = type;
+        }
+        for (int id = 0; id <= maxId; id++)
+            FLAGS[id] = createFlags(TYPES[id]);
+    }
+
+    private TileRegistry() {
+    }
+
+    private static int createFlags(TileType type) {
+        int flags = 1 << type.ordinal();
+        if (type != TileType.WALL && type != TileType.TRAP)
+            flags |= WALKABLE;
+        return flags;
+    }
+
+    /**
+     * Returns the type of a tile ID.
+     *
+     * @param id The tile ID.
+     * @return the type of the tile, or {@code null} if the ID is negative.
+     */
+    public static TileType getType(int id) {
+        if (id < 0) return null;
+        return (id < TYPES.length) ? TYPES[id] : TileType.EXTRA;
+    }
+
+    private static int getFlags(int id) {
+        if (id < 0) return 0;
+        return (id < FLAGS.length) ? FLAGS[id] : WALKABLE; // an extra
+    }
+
+    public static boolean isWall(int id) {
+        return (getFlags(id) & WALL) != 0;
+    }
+
+    public static boolean isExit(int id) {
+        return (getFlags(id) & EXIT) != 0;
+    }
+
+    public static boolean isTrap(int id) {
+        return (getFlags(id) & TRAP) != 0;
+    }
+
+    public static boolean isEnemy(int id) {
+        return (getFlags(id) & ENEMY) != 0;
+    }
+
+    public static boolean isSpeedBoost(int id) {
+        return (getFlags(id) & SPEED_BOOST) != 0;
+    }
+
+    /**
+     * Checks if a tile ID can be walked on, i.e., if it is neither a wall nor a trap.
+     *
+     * @param id The tile ID.
+     * @return {@code true} if the tile is walkable; {@code false} otherwise.
+     */
+    public static boolean isWalkable(int id) {
+        return (getFlags(id) & WALKABLE) != 0;
+    }
+}
@@ -0,0 +1,179 @@
+package de.tum.cit.fop.maze.util;
+
+import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
+import static de.tum.cit.fop.maze.util.Constants.TILE_SIZE;
+
+/**
+ * One packed bitmap of the solid pixels of all the walls of the level, with {@link Constants#TILE_SIZE} bits
+ * in each direction per tile, i.e., one bit for every pixel of the tile sheet. <br>
+ * It is baked from the alpha masks of the wall tiles when the level is loaded,
+ * so that a collision probe is a division, a shift and a mask on a {@code long[]},
+ * instead of looking up the tile object, checking its class and reading its own mask.
+ * <p>
+ * The bits are stored row by row from the bottom of the map (like the y-axis of the world),
+ * and every row starts at a new {@code long}.
+ * <p>
+ * Besides the point probes, a moving box can be {@link #sweep swept} against the bitmap,
+ * which finds the first solid pixel that the box runs into, however far it moves in one frame.
+ */
+public class CollisionBitmap {
+    private static final float PIXELS_PER_BIT = (float) TILE_SCREEN_SIZE / TILE_SIZE; // world pixels per bit
+    private static final float SKIN = 0.01f; // in world pixels, the gap that is kept between a swept box and the wall
+
+    private final int width, height; // in bits
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Constructs an empty bitmap (without any solid pixel) for a map of the given size.
+     *
+     * @param mapWidthInTiles  The width of the map in tiles.
+     * @param mapHeightInTiles The height of the map in tiles.
+     */
+    public CollisionBitmap(int mapWidthInTiles, int mapHeightInTiles) {
+        this.width = mapWidthInTiles * TILE_SIZE;
+        this.height = mapHeightInTiles * TILE_SIZE;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Marks a pixel of a tile as solid.
+     *
+     * @param tileX  The x-coordinate of the tile.
+     * @param tileY  The y-coordinate of the tile.
+     * @param pixelX The x-coordinate of the pixel inside the tile, from the left.
+     * @param pixelY The y-coordinate of the pixel inside the tile, from the bottom.
+     */
+    public void setSolid(int tileX, int tileY, int pixelX, int pixelY) {
+        int bitX = tileX * TILE_SIZE + pixelX;
+        int bitY = tileY * TILE_SIZE + pixelY;
+        words[bitY * wordsPerRow + (bitX >>> 6)] |= 1L << (bitX & 63);
+    }
+
+    /**
+     * Checks if a point in the world is on a solid pixel of a wall.
+     *
+     * @param worldX The x-coordinate of the point in world pixels.
+     * @param worldY The y-coordinate of the point in world pixels.
+     * @return {@code true} if the point is on a solid pixel; {@code false} otherwise, also outside the map.
+     */
+    public boolean isSolid(float worldX, float worldY) {
+        if (worldX < 0 || worldY < 0) return false;
+        int bitX = (int) (worldX / PIXELS_PER_BIT);
+        int bitY = (int) (worldY / PIXELS_PER_BIT);
+        if (bitX >= width || bitY >= height) return false;
+        return (words[bitY * wordsPerRow + (bitX >>> 6)] >>> (bitX & 63) & 1L) != 0;
+    }
+
+    /**
+     * Sweeps an axis-aligned box along a motion, and finds where it first runs into a solid pixel (time of impact).
+     * Every solid pixel in the area that the box sweeps over is treated as a small box,
+     * and the time that the moving box enters it is computed on both axes, like a ray against the box grown by the moving one.
+     * So a fast box can't tunnel through a thin wall, which a probe at the destination only would miss.
+     * <p>
+     * The box stops a tiny gap before the wall, and the rest of the motion along the face that was hit is the slide,
+     * e.g., the vertical part of a diagonal motion into a vertical wall.
+     * Pixels that the box already overlaps are ignored, so that a box stuck in a wall can still move out of it.
+     *
+     * @param centerX    The x-coordinate of the center of the box in world pixels.
+     * @param centerY    The y-coordinate of the center of the box in world pixels.
+     * @param halfWidth  Half the width of the box in world pixels.
+     * @param halfHeight Half the height of the box in world pixels.
+     * @param dx         The horizontal motion in world pixels.
+     * @param dy         The vertical motion in world pixels.
+     * @param result     The sweep to write the result into.
+     * @return the result.
+     */
+    public Sweep sweep(float centerX, float centerY, float halfWidth, float halfHeight, float dx, float dy, Sweep result) {
+        float minX = centerX - halfWidth, maxX = centerX + halfWidth;
+        float minY = centerY - halfHeight, maxY = centerY + halfHeight;
+
+        // the pixels in the area that the box sweeps over
+        int fromBitX = Math.max(0, (int) Math.floor(Math.min(minX, minX + dx) / PIXELS_PER_BIT));
+        int toBitX = Math.min(width - 1, (int) Math.floor(Math.max(maxX, maxX + dx) / PIXELS_PER_BIT));
+        int fromBitY = Math.max(0, (int) Math.floor(Math.min(minY, minY + dy) / PIXELS_PER_BIT));
+        int toBitY = Math.min(height - 1, (int) Math.floor(Math.max(maxY, maxY + dy) / PIXELS_PER_BIT));
+
+        float firstTime = Float.POSITIVE_INFINITY;
+        boolean hitsX = false, hitsY = false; // the axis (or both, at a corner) of the first hit
+        for (int bitY = fromBitY; bitY <= toBitY; bitY++) {
+            float pixelMinY = bitY * PIXELS_PER_BIT, pixelMaxY = pixelMinY + PIXELS_PER_BIT;
+            float entryY, exitY;
+            if (dy > 0) { entryY = (pixelMinY - maxY) / dy; exitY = (pixelMaxY - minY) / dy; }
+            else if (dy < 0) { entryY = (pixelMaxY - minY) / dy; exitY = (pixelMinY - maxY) / dy; }
+            else if (maxY > pixelMinY && minY < pixelMaxY) { entryY = Float.NEGATIVE_INFINITY; exitY = Float.POSITIVE_INFINITY; }
+            else continue; // not moving vertically, and beside this row
+            if (entryY > firstTime || entryY >= 1 || exitY <= 0) continue; // can't be hit earlier than the hit so far
+
+            // go through the solid pixels of this row in the swept range a word at a time, in the direction of the motion,
+            // so that the first pixel that the box runs into is the earliest hit in this row
+            int rowStart = bitY * wordsPerRow;
+            int fromWord = fromBitX >>> 6, toWord = toBitX >>> 6;
+            boolean isBackward = dx < 0;
+            row:
+            for (int i = 0; i <= toWord - fromWord; i++) {
+                int wordX = isBackward ? toWord - i : fromWord + i;
+                long word = words[rowStart + wordX];
+                if (wordX == fromWord) word &= -1L << (fromBitX & 63);
+                if (wordX == toWord) word &= -1L >>> (63 - (toBitX & 63));
+                while (word != 0) {
+                    int bit = isBackward ? 63 - Long.numberOfLeadingZeros(word) : Long.numberOfTrailingZeros(word);
+                    word &= ~(1L << bit);
+
+                    float pixelMinX = ((wordX << 6) + bit) * PIXELS_PER_BIT, pixelMaxX = pixelMinX + PIXELS_PER_BIT;
+                    float entryX, exitX;
+                    if (dx > 0) { entryX = (pixelMinX - maxX) / dx; exitX = (pixelMaxX - minX) / dx; }
+                    else if (dx < 0) { entryX = (pixelMaxX - minX) / dx; exitX = (pixelMinX - maxX) / dx; }
+                    else if (maxX > pixelMinX && minX < pixelMaxX) { entryX = Float.NEGATIVE_INFINITY; exitX = Float.POSITIVE_INFINITY; }
+                    else continue;
+
+                    float entry = Math.max(entryX, entryY);
+                    float exit = Math.min(exitX, exitY);
+                    if (entry < 0 || entry >= exit) continue; // already overlapping, behind, or passed before reaching this row
+                    if (entry < firstTime) {
+                        firstTime = entry;
+                        hitsX = entryX >= entryY;
+                        hitsY = entryY >= entryX;
+                    }
+                    else if (entry == firstTime) { // another pixel at the same time, e.g., the corner of a wall and a wall beside it
+                        hitsX |= entryX >= entryY;
+                        hitsY |= entryY >= entryX;
+                    }
+                    break row; // the pixels further along can only be hit later
+                }
+            }
+        }
+
+        result.hit = firstTime < 1;
+        if (!result.hit) {
+            result.time = 1;
+            result.contactX = centerX + dx;
+            result.contactY = centerY + dy;
+            result.normalX = result.normalY = 0;
+            result.slideX = result.slideY = 0;
+            return result;
+        }
+
+        // stop a little before the wall, measured along the axis that was hit
+        float skinTime = SKIN / Math.max(hitsX ? Math.abs(dx) : 0, hitsY ? Math.abs(dy) : 0);
+        float time = Math.max(0, firstTime - skinTime);
+        result.time = time;
+        result.contactX = centerX + dx * time;
+        result.contactY = centerY + dy * time;
+        result.normalX = hitsX ? -Math.signum(dx) : 0;
+        result.normalY = hitsY ? -Math.signum(dy) : 0;
+        result.slideX = hitsX ? 0 : dx * (1 - time);
+        result.slideY = hitsY ? 0 : dy * (1 - time);
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes of the packed bits.
+     *
+     * @return the size of the bitmap in bytes.
+     */
+    public int getSizeInBytes() {
+        return words.length * Long.BYTES;
+    }
+}
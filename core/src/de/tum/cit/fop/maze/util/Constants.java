@@ -34,6 +34,14 @@ public static int getWorldHeight() {
 
     public static final int MAX_PLAYER_LIVES = 10;
 
+    public static final int PATHFINDING_WORKER_COUNT = 2; // number of threads that search the enemies' paths in the background
+    public static final int PATHFINDING_BUDGET_MICROS = 1000; // time for the enemies' path searches per frame, in microseconds
+    public static final int PATH_CACHE_CAPACITY = 256; // number of paths that are remembered for the enemies on the same tiles
+    public static final int MAP_CHUNK_SIZE = 32; // width and height of the chunks that the tiles on the map are created in, in tiles
+    public static final int MAP_CHUNK_MARGIN = 8; // tiles around the camera whose chunks are created before they come into view
+    public static final int MAP_CHUNK_CAPACITY = 16; // number of chunks that are kept out of view, e.g., for the enemies' collisions
+    public static final long LEVEL_CACHE_CAPACITY_BYTES = 4L * 1024 * 1024; // memory cap of the parsed levels that are kept for retries
+
     public static <T> Array.ArrayIterator<T> iterate(Array<T> array){
         return new Array.ArrayIterator<>(array);
     }
@@ -0,0 +1,23 @@
+package de.tum.cit.fop.maze.util;
+
+/**
+ * Helpers for the paths of the files that are generated next to the assets, like the compiled levels and the hit mask sidecars.
+ */
+public final class FilePaths {
+    private FilePaths() {
+    }
+
+    /**
+     * Replaces the extension of the file name at the end of a path, or appends the new one if the file name has none.
+     * A dot in a directory name is not taken as an extension.
+     *
+     * @param path      The path to the file, with {@code /} or {@code \} as separators.
+     * @param extension The new extension, including its dot, e.g., {@code ".level"}.
+     * @return the same path with the new extension.
+     */
+    public static String replaceExtension(String path, String extension) {
+        int dot = path.lastIndexOf('.');
+        int fileName = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return ((dot > fileName) ? path.substring(0, dot) : path) + extension;
+    }
+}
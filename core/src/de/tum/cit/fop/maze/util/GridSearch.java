@@ -0,0 +1,147 @@
+package de.tum.cit.fop.maze.util;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.pathfinding.PathFinder;
+
+import java.util.Arrays;
+
+/**
+ * A reusable Breadth-First Search (BFS) engine on a {@link NavigationGrid}. <br>
+ * The nodes are packed {@code int} tile indices, and the queue, the parents and the visited marks
+ * are {@code int[]} arrays that are allocated once for the size of the map and reused for every search.
+ * The visited marks use a generation counter, so they don't even have to be cleared between two searches.
+ * Together with a path {@link IntArray} that is reused by the caller, a search allocates nothing.
+ */
+public class GridSearch implements PathFinder {
+    // right, left, up, down
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final NavigationGrid grid;
+
+    private final int[] queue; // BFS queue of packed tile indices
+    private final int[] parent; // the tile that we came from, for every visited tile
+    private final int[] visited; // a tile is visited in the current search if visited[tile] == generation
+    private final int[] goalMarks; // a tile is a goal of the current search if goalMarks[tile] == generation
+    private int generation;
+    private int expandedNodes;
+
+    /**
+     * Constructs a search engine for the given grid.
+     *
+     * @param grid The {@link NavigationGrid} to search on.
+     */
+    public GridSearch(NavigationGrid grid) {
+        this.grid = grid;
+        this.queue = new int[grid.size()];
+        this.parent = new int[grid.size()];
+        this.visited = new int[grid.size()];
+        this.goalMarks = new int[grid.size()];
+        this.generation = 0;
+    }
+
+    /**
+     * Finds the shortest path between two tiles.
+     * The start tile itself doesn't have to be walkable, but all the other tiles on the path do.
+     *
+     * @param start The packed index of the start tile.
+     * @param goal  The packed index of the goal tile.
+     * @param path  The array to write the path to, from the start tile to the goal tile (both included).
+     *              It is cleared first and stays empty if no path is found.
+     * @return {@code true} if a path has been found, {@code false} otherwise.
+     */
+    @Override
+    public boolean findPath(int start, int goal, IntArray path) {
+        nextGeneration();
+        goalMarks[goal] = generation;
+        return search(start, path);
+    }
+
+    @Override
+    public boolean findPath(int start, IntArray goals, IntArray path) {
+        nextGeneration();
+        for (int i = 0; i < goals.size; i++)
+            goalMarks[goals.get(i)] = generation;
+        return search(start, path);
+    }
+
+    /**
+     * Runs the BFS from the start tile until it reaches any of the tiles that are marked as a goal.
+     * Since a BFS visits the tiles in the order of their distance, the first goal reached is the closest one.
+     */
+    private boolean search(int start, IntArray path) {
+        path.clear();
+        expandedNodes = 0;
+
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        visited[start] = generation;
+
+        while (head < tail) {
+            int current = queue[head++];
+            expandedNodes++;
+
+            if (goalMarks[current] == generation) {
+                // Path found
+                reconstructPath(start, current, path);
+                return true;
+            }
+
+            int currentX = grid.getX(current);
+            int currentY = grid.getY(current);
+            for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                int neighborX = currentX + DIRECTION_X[dir];
+                int neighborY = currentY + DIRECTION_Y[dir];
+                if (!grid.isWalkable(neighborX, neighborY)) continue;
+
+                int neighbor = grid.toIndex(neighborX, neighborY);
+                if (visited[neighbor] == generation) continue;
+
+                visited[neighbor] = generation;
+                parent[neighbor] = current;
+                queue[tail++] = neighbor;
+            }
+        }
+
+        return false; // No path found
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Starts a new search by moving on to the next generation of visited and goal marks.
+     * Only when the counter overflows, the marks have to be cleared.
+     */
+    private void nextGeneration() {
+        generation++;
+        if (generation == 0) { // overflow, every old mark could now look like a current one
+            Arrays.fill(visited, 0);
+            Arrays.fill(goalMarks, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Follows the parents back from the goal to the start,
+     * and writes the path into the array in the correct order (from the start to the goal).
+     *
+     * @param start The packed index of the start tile.
+     * @param goal  The packed index of the goal tile.
+     * @param path  The array to write the path to.
+     */
+    private void reconstructPath(int start, int goal, IntArray path) {
+        int length = 1;
+        for (int current = goal; current != start; current = parent[current])
+            length++;
+
+        int[] items = path.setSize(length);
+        int current = goal;
+        for (int i = length - 1; i >= 0; i--) {
+            items[i] = current;
+            current = parent[current];
+        }
+    }
+}
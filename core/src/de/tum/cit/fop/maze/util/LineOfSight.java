@@ -0,0 +1,130 @@
+package de.tum.cit.fop.maze.util;
+
+import static de.tum.cit.fop.maze.util.Constants.TILE_SCREEN_SIZE;
+
+/**
+ * The wall layer of the map as a compact grid, for line-of-sight checks between two points in the world. <br>
+ * A ray is walked from tile to tile with a DDA (digital differential analyzer, Amanatides and Woo),
+ * which visits exactly the tiles that the straight line crosses, in order, with only additions per step.
+ * So a check costs one step per crossed tile, instead of a search over the area around the enemy.
+ * <p>
+ * Only the walls block the sight; the traps and the other tiles that can't be walked on can still be seen over.
+ * The tiles are packed like in {@link NavigationGrid} ({@code x * height + y}).
+ */
+public class LineOfSight {
+    private final int width, height;
+    private final boolean[] opaque; // indexed by the packed tile index
+
+    /**
+     * Constructs a line-of-sight grid of the given size, where no tile blocks the sight yet.
+     *
+     * @param width  The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     */
+    public LineOfSight(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.opaque = new boolean[width * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setOpaque(int tileX, int tileY, boolean isOpaque) {
+        opaque[tileX * height + tileY] = isOpaque;
+    }
+
+    /**
+     * Checks if the tile blocks the sight. The tiles outside the map block it too.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return {@code true} if the tile is a wall or not on the map.
+     */
+    public boolean isOpaque(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) return true;
+        return opaque[tileX * height + tileY];
+    }
+
+    /**
+     * Checks if the straight line between two points in the world crosses no wall.
+     * The tiles of the two end points themselves are not checked,
+     * since a character may stand partly on a wall tile and should still be seen.
+     * <p>
+     * Where the line goes exactly through the corner of a tile, it only counts as blocked
+     * if both tiles next to the corner are walls, i.e., one can't look through the gap between two diagonal walls.
+     *
+     * @param fromX The x-coordinate of the start in world pixels.
+     * @param fromY The y-coordinate of the start in world pixels.
+     * @param toX   The x-coordinate of the end in world pixels.
+     * @param toY   The y-coordinate of the end in world pixels.
+     * @return {@code true} if no wall is between the two points; {@code false} otherwise.
+     */
+    public boolean hasLineOfSight(float fromX, float fromY, float toX, float toY) {
+        // in tiles from here on
+        float startX = fromX / TILE_SCREEN_SIZE, startY = fromY / TILE_SCREEN_SIZE;
+        float endX = toX / TILE_SCREEN_SIZE, endY = toY / TILE_SCREEN_SIZE;
+        int tileX = (int) Math.floor(startX), tileY = (int) Math.floor(startY);
+        int endTileX = (int) Math.floor(endX), endTileY = (int) Math.floor(endY);
+
+        float dx = endX - startX, dy = endY - startY;
+        int stepX = (dx > 0) ? 1 : -1, stepY = (dy > 0) ? 1 : -1;
+        // how far along the line (from 0 to 1) one tile is in each direction,
+        // and how far along the line the next vertical / horizontal tile border is
+        float deltaX = (dx == 0) ? Float.POSITIVE_INFINITY : Math.abs(1 / dx);
+        float deltaY = (dy == 0) ? Float.POSITIVE_INFINITY : Math.abs(1 / dy);
+        float nextX = (dx == 0) ? Float.POSITIVE_INFINITY : ((dx > 0) ? (tileX + 1 - startX) : (startX - tileX)) * deltaX;
+        float nextY = (dy == 0) ? Float.POSITIVE_INFINITY : ((dy > 0) ? (tileY + 1 - startY) : (startY - tileY)) * deltaY;
+
+        // every step moves one tile closer to the end tile, so this is also a bound against rounding errors
+        int steps = Math.abs(endTileX - tileX) + Math.abs(endTileY - tileY);
+        while (steps > 0) {
+            if (nextX < nextY) {
+                tileX += stepX;
+                nextX += deltaX;
+                steps--;
+            }
+            else if (nextY < nextX) {
+                tileY += stepY;
+                nextY += deltaY;
+                steps--;
+            }
+            else { // exactly through a corner
+                if (isOpaque(tileX + stepX, tileY) && isOpaque(tileX, tileY + stepY)) return false;
+                tileX += stepX;
+                tileY += stepY;
+                nextX += deltaX;
+                nextY += deltaY;
+                steps -= 2;
+            }
+
+            if (steps <= 0) return true; // reached the end tile
+            if (isOpaque(tileX, tileY)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a point is inside a vision cone, i.e., if the angle between the facing direction
+     * and the direction to the point is at most half of the cone's angle.
+     * Compares cosines, so that no angle has to be computed.
+     *
+     * @param facingX           The x-component of the facing direction (doesn't have to be normalized).
+     * @param facingY           The y-component of the facing direction.
+     * @param toX               The x-component of the direction to the point.
+     * @param toY               The y-component of the direction to the point.
+     * @param cosHalfConeAngle  The cosine of half the cone's angle.
+     * @return {@code true} if the point is inside the cone; {@code false} otherwise.
+     */
+    public static boolean isInVisionCone(float facingX, float facingY, float toX, float toY, float cosHalfConeAngle) {
+        float dot = facingX * toX + facingY * toY;
+        float lengths = (float) Math.sqrt((facingX * facingX + facingY * facingY) * (toX * toX + toY * toY));
+        if (lengths == 0) return true; // standing on the point
+        return dot >= cosHalfConeAngle * lengths;
+    }
+}
@@ -0,0 +1,233 @@
+package de.tum.cit.fop.maze.util;
+
+import java.util.Arrays;
+
+/**
+ * A compact walkability grid of the map that the pathfinding works on. <br>
+ * Every tile is addressed by a packed {@code int} index ({@code x * height + y}),
+ * so that searches can use plain {@code int[]} arrays instead of {@link Position} objects.
+ * <p>
+ * It also labels the connected regions of walkable tiles,
+ * so that a target in another region can be rejected without searching.
+ */
+public class NavigationGrid {
+    /** the region ID of a tile that is not walkable (or not on the map) */
+    public static final int NO_REGION = -1;
+
+    // right, left, up, down
+    private static final int[] DIRECTION_X = {1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1};
+
+    private final int width, height;
+    private final boolean[] walkable; // indexed by the packed tile index
+    private final int[] regions; // the ID of the connected region of every walkable tile, indexed by the packed tile index
+    private int regionCount;
+    private volatile int version; // increases whenever the walkability of a tile changes, read by the path caches
+
+    /**
+     * Constructs a navigation grid of the given size, where no tile is walkable yet.
+     *
+     * @param width  The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     */
+    public NavigationGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.walkable = new boolean[width * height];
+        this.regions = new int[width * height];
+        Arrays.fill(regions, NO_REGION);
+    }
+
+    /**
+     * Constructs a navigation grid from a precomputed walkability and regions, e.g., from a compiled level file,
+     * so that the regions don't have to be labelled again. The arrays are copied.
+     *
+     * @param width       The width of the map in tiles.
+     * @param height      The height of the map in tiles.
+     * @param walkable    Whether every tile is walkable, indexed by the packed tile index.
+     * @param regions     The region ID of every tile, indexed by the packed tile index.
+     * @param regionCount The number of regions.
+     */
+    public NavigationGrid(int width, int height, boolean[] walkable, int[] regions, int regionCount) {
+        this.width = width;
+        this.height = height;
+        this.walkable = walkable.clone();
+        this.regions = regions.clone();
+        this.regionCount = regionCount;
+    }
+
+    /**
+     * Constructs a copy of the given grid (including its regions),
+     * e.g., as a snapshot for searches on another thread.
+     *
+     * @param other The grid to copy.
+     */
+    public NavigationGrid(NavigationGrid other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.walkable = other.walkable.clone();
+        this.regions = other.regions.clone();
+        this.regionCount = other.regionCount;
+        this.version = other.version;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of tiles in the grid, which is also the upper bound of every packed index.
+     *
+     * @return the number of tiles.
+     */
+    public int size() {
+        return walkable.length;
+    }
+
+    /**
+     * Packs the tile coordinates into a single index.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The packed index of the tile.
+     */
+    public int toIndex(int tileX, int tileY) {
+        return tileX * height + tileY;
+    }
+
+    /**
+     * Returns the x-coordinate of the tile with the given packed index.
+     *
+     * @param index The packed index of the tile.
+     * @return The x-coordinate of the tile.
+     */
+    public int getX(int index) {
+        return index / height;
+    }
+
+    /**
+     * Returns the y-coordinate of the tile with the given packed index.
+     *
+     * @param index The packed index of the tile.
+     * @return The y-coordinate of the tile.
+     */
+    public int getY(int index) {
+        return index % height;
+    }
+
+    public boolean isInBounds(int tileX, int tileY) {
+        return tileX >= 0 && tileY >= 0 && tileX < width && tileY < height;
+    }
+
+    /**
+     * Checks if the tile with the given packed index is walkable.
+     * The index is assumed to be valid.
+     *
+     * @param index The packed index of the tile.
+     * @return {@code true} if the tile is walkable.
+     */
+    public boolean isWalkable(int index) {
+        return walkable[index];
+    }
+
+    /**
+     * Checks if the tile at the given coordinates is on the map and walkable.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return {@code true} if the tile is on the map and walkable.
+     */
+    public boolean isWalkable(int tileX, int tileY) {
+        return isInBounds(tileX, tileY) && walkable[toIndex(tileX, tileY)];
+    }
+
+    public void setWalkable(int tileX, int tileY, boolean isWalkable) {
+        int index = toIndex(tileX, tileY);
+        if (walkable[index] == isWalkable) return;
+        walkable[index] = isWalkable;
+        version++; // only ever changed on the render thread
+    }
+
+    /**
+     * Returns a number that changes whenever the walkability of any tile changes,
+     * so that everything that depends on the walkability (like cached paths) can tell when it is outdated.
+     *
+     * @return the current version of the grid.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Labels every walkable tile with the ID of its connected region (moving only horizontally and vertically),
+     * with one flood fill per region, so it takes linear time in the size of the map.
+     * It has to be called again after the walkability of any tile has changed.
+     */
+    public void labelRegions() {
+        Arrays.fill(regions, NO_REGION);
+        regionCount = 0;
+        int[] queue = new int[size()];
+
+        for (int seed = 0; seed < size(); seed++) {
+            if (!walkable[seed] || regions[seed] != NO_REGION) continue;
+
+            // flood fill a new region from this tile
+            int region = regionCount++;
+            int head = 0, tail = 0;
+            regions[seed] = region;
+            queue[tail++] = seed;
+            while (head < tail) {
+                int current = queue[head++];
+                int currentX = getX(current);
+                int currentY = getY(current);
+                for (int dir = 0; dir < DIRECTION_X.length; dir++) {
+                    int neighborX = currentX + DIRECTION_X[dir];
+                    int neighborY = currentY + DIRECTION_Y[dir];
+                    if (!isWalkable(neighborX, neighborY)) continue;
+
+                    int neighbor = toIndex(neighborX, neighborY);
+                    if (regions[neighbor] != NO_REGION) continue;
+
+                    regions[neighbor] = region;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ID of the connected region of the tile with the given packed index.
+     * The index is assumed to be valid.
+     *
+     * @param index The packed index of the tile.
+     * @return The region ID, or {@link #NO_REGION} if the tile is not walkable.
+     */
+    public int getRegion(int index) {
+        return regions[index];
+    }
+
+    /**
+     * Returns the ID of the connected region of the tile at the given coordinates.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The region ID, or {@link #NO_REGION} if the tile is not on the map or not walkable.
+     */
+    public int getRegion(int tileX, int tileY) {
+        if (!isInBounds(tileX, tileY)) return NO_REGION;
+        return regions[toIndex(tileX, tileY)];
+    }
+
+    /**
+     * Returns the number of connected regions found by the last {@link #labelRegions()}.
+     *
+     * @return the number of regions.
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+}
@@ -0,0 +1,50 @@
+package de.tum.cit.fop.maze.util;
+
+/**
+ * The result of sweeping a box against the walls with {@link CollisionBitmap#sweep}. <br>
+ * It is reused by every sweep of the same character, so that moving doesn't create any garbage.
+ */
+public class Sweep {
+    boolean hit;
+    float time; // from 0 to 1, how far along the motion the box got
+    float contactX, contactY; // the center of the box where it stopped
+    float normalX, normalY; // of the wall's face that was hit, pointing away from the wall
+    float slideX, slideY; // the rest of the motion along the face that was hit
+
+    /**
+     * Checks if the box hit a wall before the end of the motion.
+     *
+     * @return {@code true} if the box hit a wall; {@code false} if it could move the whole way.
+     */
+    public boolean isHit() {
+        return hit;
+    }
+
+    public float getTime() {
+        return time;
+    }
+
+    public float getContactX() {
+        return contactX;
+    }
+
+    public float getContactY() {
+        return contactY;
+    }
+
+    public float getNormalX() {
+        return normalX;
+    }
+
+    public float getNormalY() {
+        return normalY;
+    }
+
+    public float getSlideX() {
+        return slideX;
+    }
+
+    public float getSlideY() {
+        return slideY;
+    }
+}